@@ -1,10 +1,18 @@
 package com.chess;
+import java.io.IOException;
+
 import com.chess.engine.board.Board;
 import com.chess.gui.Table;
+import com.chess.uci.UciEngine;
 
 public class JChess {
 
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
+		// headless mode for match runners and analysis GUIs
+		if(args.length > 0 && args[0].equalsIgnoreCase("uci")){
+			new UciEngine(System.in, System.out).run();
+			return;
+		}
 		Board board = Board.createStandardBoard();
 		
 		System.out.println(board);
@@ -1,5 +1,6 @@
 package com.chess.engine;
 
+import com.chess.engine.board.BoardUtils;
 import com.chess.engine.player.BlackPlayer;
 import com.chess.engine.player.Player;
 import com.chess.engine.player.WhitePlayer;
@@ -25,6 +26,11 @@ public enum Alliance {
 		public Player choosePlayer(final WhitePlayer whitePlayer, final BlackPlayer blackPlayer) {
 			return whitePlayer;
 		}
+
+		@Override
+		public boolean isPawnPromotionSquare(final int position) {
+			return BoardUtils.First_Row[position];
+		}
 	},	
  	Black{
 		@Override
@@ -46,10 +52,16 @@ public enum Alliance {
 		public Player choosePlayer(final WhitePlayer whitePlayer, final BlackPlayer blackPlayer) {
 			return blackPlayer;
 		}
+
+		@Override
+		public boolean isPawnPromotionSquare(final int position) {
+			return BoardUtils.Eighth_Row[position];
+		}
 	};	
 	
 	public abstract int getDirection();
 	public abstract boolean isWhite();
 	public abstract boolean isBlack();
 	public abstract Player choosePlayer(WhitePlayer whitePlayer, BlackPlayer blackPlayer);
+	public abstract boolean isPawnPromotionSquare(int position);
 }
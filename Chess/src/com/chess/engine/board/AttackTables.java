@@ -0,0 +1,148 @@
+package com.chess.engine.board;
+
+import java.util.Arrays;
+
+import com.chess.engine.Alliance;
+
+public final class AttackTables {
+
+	private static final int[] Knight_Row_Offsets = {-2, -2, -1, -1, 1, 1, 2, 2};
+	private static final int[] Knight_Column_Offsets = {-1, 1, -2, 2, -2, 2, -1, 1};
+	private static final int[] King_Row_Offsets = {-1, -1, -1, 0, 0, 1, 1, 1};
+	private static final int[] King_Column_Offsets = {-1, 0, 1, -1, 1, -1, 0, 1};
+	// white pawns capture towards row 0, black pawns towards row 7
+	private static final int[][] Pawn_Row_Offsets = {{-1, -1}, {1, 1}};
+	private static final int[] Pawn_Column_Offsets = {-1, 1};
+
+	private static final int[][] Knight_Targets = initTargets(Knight_Row_Offsets, Knight_Column_Offsets);
+	private static final int[][] King_Targets = initTargets(King_Row_Offsets, King_Column_Offsets);
+	private static final int[][][] Pawn_Attack_Targets = {
+		initTargets(Pawn_Row_Offsets[0], Pawn_Column_Offsets),
+		initTargets(Pawn_Row_Offsets[1], Pawn_Column_Offsets)
+	};
+	private static final long[] Knight_Attacks = initAttacks(Knight_Targets);
+	private static final long[] King_Attacks = initAttacks(King_Targets);
+	private static final long[][] Pawn_Attacks = {
+		initAttacks(Pawn_Attack_Targets[0]),
+		initAttacks(Pawn_Attack_Targets[1])
+	};
+	private static final long[][] Between = new long[BoardUtils.Num_Tiles][BoardUtils.Num_Tiles];
+	private static final long[][] Line = new long[BoardUtils.Num_Tiles][BoardUtils.Num_Tiles];
+
+	static{
+		initLines();
+	}
+
+	private AttackTables(){
+		throw new RuntimeException("You cannot instantiate me!");
+	}
+
+	public static long knightAttacks(final int tile){
+		return Knight_Attacks[tile];
+	}
+
+	public static long kingAttacks(final int tile){
+		return King_Attacks[tile];
+	}
+
+	// side is the alliance ordinal of the capturing pawn
+	public static long pawnAttacks(final int side, final int tile){
+		return Pawn_Attacks[side][tile];
+	}
+
+	public static long pawnAttacks(final Alliance alliance, final int tile){
+		return Pawn_Attacks[alliance.ordinal()][tile];
+	}
+
+	// the index arrays are shared, callers must not modify them
+	public static int[] knightTargets(final int tile){
+		return Knight_Targets[tile];
+	}
+
+	public static int[] kingTargets(final int tile){
+		return King_Targets[tile];
+	}
+
+	public static int[] pawnAttackTargets(final int side, final int tile){
+		return Pawn_Attack_Targets[side][tile];
+	}
+
+	public static int[] pawnAttackTargets(final Alliance alliance, final int tile){
+		return Pawn_Attack_Targets[alliance.ordinal()][tile];
+	}
+
+	// squares strictly between two tiles sharing a row, column or diagonal, empty otherwise
+	public static long between(final int from, final int to){
+		return Between[from][to];
+	}
+
+	// the whole row, column or diagonal through both tiles, empty when they are not aligned
+	public static long line(final int from, final int to){
+		return Line[from][to];
+	}
+
+	private static void initLines(){
+		for(int from = 0; from < BoardUtils.Num_Tiles; from++){
+			for(int direction = 0; direction < King_Row_Offsets.length; direction++){
+				final int rowOffset = King_Row_Offsets[direction];
+				final int columnOffset = King_Column_Offsets[direction];
+				final long fullLine = ray(from, rowOffset, columnOffset) | ray(from, -rowOffset, -columnOffset) | BitBoard.squareMask(from);
+				long passed = 0;
+				int row = from / BoardUtils.Num_Tiles_Per_Row + rowOffset;
+				int column = from % BoardUtils.Num_Tiles_Per_Row + columnOffset;
+				while(isOnBoard(row, column)){
+					final int to = row * BoardUtils.Num_Tiles_Per_Row + column;
+					Between[from][to] = passed;
+					Line[from][to] = fullLine;
+					passed |= BitBoard.squareMask(to);
+					row += rowOffset;
+					column += columnOffset;
+				}
+			}
+		}
+	}
+
+	private static long ray(final int from, final int rowOffset, final int columnOffset){
+		long ray = 0;
+		int row = from / BoardUtils.Num_Tiles_Per_Row + rowOffset;
+		int column = from % BoardUtils.Num_Tiles_Per_Row + columnOffset;
+		while(isOnBoard(row, column)){
+			ray |= BitBoard.squareMask(row * BoardUtils.Num_Tiles_Per_Row + column);
+			row += rowOffset;
+			column += columnOffset;
+		}
+		return ray;
+	}
+
+	private static boolean isOnBoard(final int row, final int column){
+		return row >= 0 && row < BoardUtils.Num_Tiles_Per_Row && column >= 0 && column < BoardUtils.Num_Tiles_Per_Row;
+	}
+
+	private static int[][] initTargets(final int[] rowOffsets, final int[] columnOffsets){
+		final int[][] targets = new int[BoardUtils.Num_Tiles][];
+		for(int tile = 0; tile < BoardUtils.Num_Tiles; tile++){
+			final int[] tileTargets = new int[rowOffsets.length];
+			int length = 0;
+			for(int i = 0; i < rowOffsets.length; i++){
+				final int row = tile / BoardUtils.Num_Tiles_Per_Row + rowOffsets[i];
+				final int column = tile % BoardUtils.Num_Tiles_Per_Row + columnOffsets[i];
+				if(isOnBoard(row, column)){
+					tileTargets[length++] = row * BoardUtils.Num_Tiles_Per_Row + column;
+				}
+			}
+			targets[tile] = Arrays.copyOf(tileTargets, length);
+		}
+		return targets;
+	}
+
+	private static long[] initAttacks(final int[][] targets){
+		final long[] attacks = new long[BoardUtils.Num_Tiles];
+		for(int tile = 0; tile < BoardUtils.Num_Tiles; tile++){
+			for(final int target : targets[tile]){
+				attacks[tile] |= BitBoard.squareMask(target);
+			}
+		}
+		return attacks;
+	}
+
+}
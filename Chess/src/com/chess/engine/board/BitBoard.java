@@ -0,0 +1,62 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+public final class BitBoard {
+
+	public static final int Num_Piece_Types = PieceType.values().length;
+	public static final int Num_Piece_Bitboards = Num_Piece_Types * Alliance.values().length;
+
+	public static final long Empty = 0L;
+	public static final long Full = ~0L;
+
+	private BitBoard(){
+		throw new RuntimeException("You cannot instantiate me!");
+	}
+
+	// one bitboard per (alliance, piece type), bit i is tile i
+	public static int index(final PieceType pieceType, final Alliance alliance){
+		return alliance.ordinal() * Num_Piece_Types + pieceType.ordinal();
+	}
+
+	public static PieceType pieceTypeOf(final int index){
+		return PieceType.values()[index % Num_Piece_Types];
+	}
+
+	public static Alliance allianceOf(final int index){
+		return Alliance.values()[index / Num_Piece_Types];
+	}
+
+	public static long squareMask(final int tileCoordinate){
+		return 1L << tileCoordinate;
+	}
+
+	public static boolean isSet(final long bitboard, final int tileCoordinate){
+		return (bitboard & (1L << tileCoordinate)) != 0;
+	}
+
+	public static int firstSquare(final long bitboard){
+		return Long.numberOfTrailingZeros(bitboard);
+	}
+
+	public static long clearFirst(final long bitboard){
+		return bitboard & (bitboard - 1);
+	}
+
+	public static int count(final long bitboard){
+		return Long.bitCount(bitboard);
+	}
+
+	public static String toString(final long bitboard){
+		final StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < BoardUtils.Num_Tiles; i++){
+			builder.append(String.format("%3s", isSet(bitboard, i) ? "1" : "."));
+			if((i+1)%BoardUtils.Num_Tiles_Per_Row == 0){
+				builder.append("\n");
+			}
+		}
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,16 @@
+package com.chess.engine.board;
+
+// the bitboards and incrementally kept scores that Board and MutableBoard both maintain, so evaluation reads either
+// one directly instead of copying it into the other
+public interface BitBoardPosition {
+
+	long getPieceBitboard(int pieceIndex);
+
+	// side is an alliance ordinal
+	long getOccupancy(int side);
+
+	int getPieceSquareScore();
+
+	long getPawnHash();
+
+}
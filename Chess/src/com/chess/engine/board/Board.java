@@ -1,11 +1,10 @@
 package com.chess.engine.board;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.pieces.Bishop;
@@ -13,6 +12,8 @@ import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Knight;
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.PieceUtils;
 import com.chess.engine.pieces.Queen;
 import com.chess.engine.pieces.Rook;
 import com.chess.engine.player.BlackPlayer;
@@ -21,23 +22,47 @@ import com.chess.engine.player.WhitePlayer;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
-public class Board {
+public class Board implements BitBoardPosition {
 	
-	private final List<Tile> gameboard;
+	private final Tile[] gameboard;
+	private final long[] pieceBitboards;
+	private final long whiteOccupancy;
+	private final long blackOccupancy;
+	private final long occupancy;
 	private final Collection<Piece> whitePieces;
 	private final Collection<Piece> blackPieces;
 	private final Player currentPlayer;
 	private final WhitePlayer whitePlayer;
 	private final BlackPlayer blackPlayer;
+	private final Pawn enPassantPawn;
+	private final int castlingRights;
+	private final long zobristHash;
+	// pawns alone, for caching pawn structure
+	private final long pawnHash;
+	// material and piece-square values, see PieceSquareTables
+	private final int pieceSquareScore;
+	// computed on first use; racy single-check is safe because the lists are immutable and idempotent
+	private volatile Collection<Move> whiteStandardLegalMoves;
+	private volatile Collection<Move> blackStandardLegalMoves;
 	
 	private Board(Builder builder){
+		this.pieceBitboards = createPieceBitboards(builder);
+		this.whiteOccupancy = calculateOccupancy(this.pieceBitboards, Alliance.White);
+		this.blackOccupancy = calculateOccupancy(this.pieceBitboards, Alliance.Black);
+		this.occupancy = this.whiteOccupancy | this.blackOccupancy;
 		this.gameboard = createGameBoard(builder);
-		this.whitePieces = calculateActivePieces(this.gameboard, Alliance.White);
-		this.blackPieces = calculateActivePieces(this.gameboard, Alliance.Black);
-		final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-		final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
-		this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-		this.blackPlayer = new BlackPlayer(this, blackStandardLegalMoves, whiteStandardLegalMoves);
+		this.whitePieces = calculateActivePieces(this.gameboard, this.whiteOccupancy);
+		this.blackPieces = calculateActivePieces(this.gameboard, this.blackOccupancy);
+		this.enPassantPawn = builder.enPassanPawn == null ? null :
+			PieceUtils.getMovedPawn(builder.enPassanPawn.getPieceAllance(), builder.enPassanPawn.getPiecePosition());
+		this.castlingRights = calculateCastlingRights(this.gameboard);
+		this.zobristHash = builder.hasZobristHash ? builder.zobristHash :
+			Zobrist.calculateHash(this.pieceBitboards, builder.nextMoveMaker.isWhite(), this.castlingRights, this.enPassantPawn);
+		this.pawnHash = builder.hasZobristHash ? builder.pawnHash : Zobrist.calculatePawnHash(this.pieceBitboards);
+		this.pieceSquareScore = builder.hasPieceSquareScore ? builder.pieceSquareScore :
+			PieceSquareTables.calculateScore(this.pieceBitboards);
+		this.whitePlayer = new WhitePlayer(this);
+		this.blackPlayer = new BlackPlayer(this);
 		this.currentPlayer = builder.nextMoveMaker.choosePlayer(whitePlayer, blackPlayer);
 	}
 	public Player currentPlayer() {
@@ -45,6 +70,21 @@ public class Board {
 		return this.currentPlayer;
 	}
 	
+	public Collection<Move> getStandardLegalMoves(final Alliance alliance){
+		if(alliance.isWhite()){
+			Collection<Move> moves = this.whiteStandardLegalMoves;
+			if(moves == null){
+				this.whiteStandardLegalMoves = moves = calculateLegalMoves(this.whitePieces);
+			}
+			return moves;
+		}
+		Collection<Move> moves = this.blackStandardLegalMoves;
+		if(moves == null){
+			this.blackStandardLegalMoves = moves = calculateLegalMoves(this.blackPieces);
+		}
+		return moves;
+	}
+	
 	private Collection<Move> calculateLegalMoves(final Collection<Piece> Pieces){
 		final List<Move> LegalMoves = new ArrayList<>();
 		
@@ -54,12 +94,103 @@ public class Board {
 		return ImmutableList.copyOf(LegalMoves);
 	}
 
+	// works back from the tile: a piece attacks it exactly when the same piece on the tile would attack the piece
+	public boolean isSquareAttacked(final int tile, final Alliance byAlliance){
+		return isSquareAttacked(tile, byAlliance, this.occupancy);
+	}
+	
+	// occupancy stands in for the board's own, so callers can test a position before moving pieces
+	public boolean isSquareAttacked(final int tile, final Alliance byAlliance, final long occupancy){
+		final Alliance defender = byAlliance.isWhite() ? Alliance.Black : Alliance.White;
+		final long queens = getPieceBitboard(PieceType.QUEEN, byAlliance);
+		return (AttackTables.pawnAttacks(defender, tile) & getPieceBitboard(PieceType.PAWN, byAlliance)) != 0 ||
+			   (AttackTables.knightAttacks(tile) & getPieceBitboard(PieceType.KNIGHT, byAlliance)) != 0 ||
+			   (AttackTables.kingAttacks(tile) & getPieceBitboard(PieceType.KING, byAlliance)) != 0 ||
+			   (MagicBitboards.bishopAttacks(tile, occupancy) & (getPieceBitboard(PieceType.BISHOP, byAlliance) | queens)) != 0 ||
+			   (MagicBitboards.rookAttacks(tile, occupancy) & (getPieceBitboard(PieceType.ROOK, byAlliance) | queens)) != 0;
+	}
+	
+	public long getAttackers(final int tile, final Alliance byAlliance, final long occupancy){
+		final Alliance defender = byAlliance.isWhite() ? Alliance.Black : Alliance.White;
+		final long queens = getPieceBitboard(PieceType.QUEEN, byAlliance);
+		return (AttackTables.pawnAttacks(defender, tile) & getPieceBitboard(PieceType.PAWN, byAlliance)) |
+			   (AttackTables.knightAttacks(tile) & getPieceBitboard(PieceType.KNIGHT, byAlliance)) |
+			   (AttackTables.kingAttacks(tile) & getPieceBitboard(PieceType.KING, byAlliance)) |
+			   (MagicBitboards.bishopAttacks(tile, occupancy) & (getPieceBitboard(PieceType.BISHOP, byAlliance) | queens)) |
+			   (MagicBitboards.rookAttacks(tile, occupancy) & (getPieceBitboard(PieceType.ROOK, byAlliance) | queens));
+	}
+	
 	public Player whitePlayer(){
 		return this.whitePlayer;
 	}
 
 	public Player blackPlayer(){
-		return this.blackPlayer();
+		return this.blackPlayer;
+	}
+	
+	public Pawn getEnPassantPawn(){
+		return this.enPassantPawn;
+	}
+	
+	public int getCastlingRights(){
+		return this.castlingRights;
+	}
+	
+	public long getZobristHash(){
+		return this.zobristHash;
+	}
+	
+	@Override
+	public long getPawnHash(){
+		return this.pawnHash;
+	}
+	
+	@Override
+	public int getPieceSquareScore(){
+		return this.pieceSquareScore;
+	}
+	
+	@Override
+	public int hashCode(){
+		return (int)(this.zobristHash ^ (this.zobristHash >>> 32));
+	}
+	
+	@Override
+	public boolean equals(final Object other){
+		if(this == other){
+			return true;
+		}
+		if(!(other instanceof Board)){
+			return false;
+		}
+		final Board otherBoard = (Board) other;
+		return this.zobristHash == otherBoard.zobristHash &&
+			   this.castlingRights == otherBoard.castlingRights &&
+			   this.currentPlayer.getAlliance() == otherBoard.currentPlayer.getAlliance() &&
+			   Zobrist.enPassant(this.enPassantPawn) == Zobrist.enPassant(otherBoard.enPassantPawn) &&
+			   Arrays.equals(this.pieceBitboards, otherBoard.pieceBitboards);
+	}
+	
+	public long getPieceBitboard(final PieceType pieceType, final Alliance alliance){
+		return this.pieceBitboards[BitBoard.index(pieceType, alliance)];
+	}
+	
+	@Override
+	public long getPieceBitboard(final int pieceIndex){
+		return this.pieceBitboards[pieceIndex];
+	}
+	
+	public long getOccupancy(final Alliance alliance){
+		return alliance.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+	}
+	
+	@Override
+	public long getOccupancy(final int side){
+		return side == Alliance.White.ordinal() ? this.whiteOccupancy : this.blackOccupancy;
+	}
+	
+	public long getOccupancy(){
+		return this.occupancy;
 	}
 	
 	
@@ -67,7 +198,7 @@ public class Board {
 	public String toString(){
 		final StringBuilder builder = new StringBuilder();
 		for(int i = 0; i < BoardUtils.Num_Tiles; i++){
-			final String tileText = this.gameboard.get(i).toString();
+			final String tileText = this.gameboard[i].toString();
 			builder.append(String.format("%3s", tileText));
 			if((i+1)%BoardUtils.Num_Tiles_Per_Row == 0){
 				builder.append("\n");
@@ -83,19 +214,56 @@ public class Board {
 		return whitePieces;
 	}
 	
-	private static Collection<Piece> calculateActivePieces(final List<Tile> gameboard, final Alliance alliance){
-		final List<Piece> activePieces = new ArrayList<>();
-		for(Tile tile : gameboard){
-			if(tile.isTileOccupied()){
-				final Piece piece = tile.getPiece();
-				if(piece.getPieceAllance() == alliance){
-					activePieces.add(piece);
-				}
-			}
+	private static Collection<Piece> calculateActivePieces(final Tile[] gameboard, final long allianceOccupancy){
+		final Piece[] activePieces = new Piece[BitBoard.count(allianceOccupancy)];
+		long remaining = allianceOccupancy;
+		for(int i = 0; i < activePieces.length; i++){
+			activePieces[i] = gameboard[BitBoard.firstSquare(remaining)].getPiece();
+			remaining = BitBoard.clearFirst(remaining);
 		}
-		
 		return ImmutableList.copyOf(activePieces);
-		
+	}
+	
+	private static int calculateCastlingRights(final Tile[] gameboard){
+		int castlingRights = 0;
+		if(isCastlePair(gameboard, 60, 63, Alliance.White)){
+			castlingRights |= BoardUtils.White_King_Side_Castle;
+		}
+		if(isCastlePair(gameboard, 60, 56, Alliance.White)){
+			castlingRights |= BoardUtils.White_Queen_Side_Castle;
+		}
+		if(isCastlePair(gameboard, 4, 7, Alliance.Black)){
+			castlingRights |= BoardUtils.Black_King_Side_Castle;
+		}
+		if(isCastlePair(gameboard, 4, 0, Alliance.Black)){
+			castlingRights |= BoardUtils.Black_Queen_Side_Castle;
+		}
+		return castlingRights;
+	}
+	
+	private static boolean isCastlePair(final Tile[] gameboard, final int kingTile, final int rookTile, final Alliance alliance){
+		final Piece king = gameboard[kingTile].getPiece();
+		final Piece rook = gameboard[rookTile].getPiece();
+		return king != null && king.getPieceType().isKing() && king.getPieceAllance() == alliance && king.isFirstMove() &&
+			   rook != null && rook.getPieceType().isRook() && rook.getPieceAllance() == alliance && rook.isFirstMove();
+	}
+	
+	private static long[] createPieceBitboards(final Builder builder){
+		final long[] bitboards = new long[BitBoard.Num_Piece_Bitboards];
+		for(final Piece piece : builder.boardConfig){
+			if(piece != null){
+				bitboards[BitBoard.index(piece.getPieceType(), piece.getPieceAllance())] |= BitBoard.squareMask(piece.getPiecePosition());
+			}
+		}
+		return bitboards;
+	}
+	
+	private static long calculateOccupancy(final long[] pieceBitboards, final Alliance alliance){
+		long allianceOccupancy = BitBoard.Empty;
+		for(final PieceType pieceType : PieceType.values()){
+			allianceOccupancy |= pieceBitboards[BitBoard.index(pieceType, alliance)];
+		}
+		return allianceOccupancy;
 	}
 	
 	public static Board createStandardBoard(){
@@ -134,33 +302,44 @@ public class Board {
 		builder.setPiece(new Bishop(61,Alliance.White));
 		builder.setPiece(new Knight(62,Alliance.White));
 		builder.setPiece(new Rook(63,Alliance.White));
+		builder.setMoveMaker(Alliance.White);
 		return builder.build();
 	}
 	
-	private static List<Tile> createGameBoard(final Builder builder){
+	private Tile[] createGameBoard(final Builder builder){
 		final Tile[] tiles = new Tile[BoardUtils.Num_Tiles];
 		for(int i = 0; i < BoardUtils.Num_Tiles; i++){
-			tiles[i] = Tile.createTile(i, builder.boardConfig.get(i));
+			tiles[i] = BitBoard.isSet(this.occupancy, i) ? Tile.createTile(i, builder.boardConfig[i]) : Tile.createTile(i, null);
 		}
-		return ImmutableList.copyOf(tiles);
+		return tiles;
 	}
 	
 	public Tile getTile(final int tileCoordinate){
-		return gameboard.get(tileCoordinate);
+		return this.gameboard[tileCoordinate];
+	}
+	
+	public boolean isTileOccupied(final int tileCoordinate){
+		return BitBoard.isSet(this.occupancy, tileCoordinate);
 	}
 	
 	public static class Builder{
 		
-		Map<Integer, Piece> boardConfig;
+		// indexed by tile, so placing a piece neither boxes nor hashes
+		final Piece[] boardConfig;
 		Alliance nextMoveMaker;
 		Pawn enPassanPawn;
+		long zobristHash;
+		long pawnHash;
+		boolean hasZobristHash;
+		int pieceSquareScore;
+		boolean hasPieceSquareScore;
 		
 		public Builder(){
-			this.boardConfig = new HashMap<>();
+			this.boardConfig = new Piece[BoardUtils.Num_Tiles];
 		}
 		
 		public Builder setPiece(final Piece piece){
-			this.boardConfig.put(piece.getPiecePosition(), piece);
+			this.boardConfig[piece.getPiecePosition()] = piece;
 			return this;
 		}
 		
@@ -177,6 +356,21 @@ public class Board {
 			this.enPassanPawn = enPassanPawn;
 		}
 		
+		// keys maintained incrementally by Move.execute, skip the full rehash in the Board constructor
+		Builder setZobristHash(final long zobristHash, final long pawnHash){
+			this.zobristHash = zobristHash;
+			this.pawnHash = pawnHash;
+			this.hasZobristHash = true;
+			return this;
+		}
+		
+		// maintained by Move.execute like the key, skips the rescan of every piece
+		Builder setPieceSquareScore(final int pieceSquareScore){
+			this.pieceSquareScore = pieceSquareScore;
+			this.hasPieceSquareScore = true;
+			return this;
+		}
+		
 	}
 
 	public Iterable<Move> getAllLegalMoves() {
@@ -1,5 +1,10 @@
 package com.chess.engine.board;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+
 public class BoardUtils {
 	
 	public static final boolean[] First_Column = initColumn(0);
@@ -7,11 +12,25 @@ public class BoardUtils {
 	public static final boolean[] Seventh_Column = initColumn(6);
 	public static final boolean[] Eighth_Column = initColumn(7);
 	
+	public static final boolean[] First_Row = initRow(0);
 	public static final boolean[] Second_Row = initRow(8);
 	public static final boolean[] Seventh_Row = initRow(48);
+	public static final boolean[] Eighth_Row = initRow(56);
 	
 	public static final int Num_Tiles = 64;
 	public static final int Num_Tiles_Per_Row = 8;
+	
+	public static final int White_King_Side_Castle = 1;
+	public static final int White_Queen_Side_Castle = 2;
+	public static final int Black_King_Side_Castle = 4;
+	public static final int Black_Queen_Side_Castle = 8;
+	public static final int Num_Castling_Rights = 16;
+	
+	// rights that survive a move touching the tile, either as origin or as destination
+	private static final int[] Castling_Rights_Mask = initCastlingRightsMask();
+	
+	public static final String[] Algebraic_Notation = initAlgebraicNotation();
+	public static final Map<String, Integer> Position_To_Coordinate = initPositionToCoordinateMap();
 	private BoardUtils(){
 		throw new RuntimeException("You cannot instantiate me!");
 	}
@@ -40,5 +59,51 @@ public class BoardUtils {
 	public static boolean isValidTileCoordinate(int coordinate){
 		return coordinate >=0 && coordinate < Num_Tiles;
 	}
+	
+	private static int[] initCastlingRightsMask(){
+		final int[] mask = new int[Num_Tiles];
+		for(int i = 0; i < Num_Tiles; i++){
+			mask[i] = Num_Castling_Rights - 1;
+		}
+		mask[60] &= ~(White_King_Side_Castle | White_Queen_Side_Castle);
+		mask[63] &= ~White_King_Side_Castle;
+		mask[56] &= ~White_Queen_Side_Castle;
+		mask[4] &= ~(Black_King_Side_Castle | Black_Queen_Side_Castle);
+		mask[7] &= ~Black_King_Side_Castle;
+		mask[0] &= ~Black_Queen_Side_Castle;
+		return mask;
+	}
+	
+	public static int updateCastlingRights(final int castlingRights, final int currentCoordinate, final int destinationCoordinate){
+		return castlingRights & Castling_Rights_Mask[currentCoordinate] & Castling_Rights_Mask[destinationCoordinate];
+	}
+	
+	private static String[] initAlgebraicNotation(){
+		final String[] notation = new String[Num_Tiles];
+		for(int i = 0; i < Num_Tiles; i++){
+			notation[i] = "" + (char)('a' + i % Num_Tiles_Per_Row) + (Num_Tiles_Per_Row - i / Num_Tiles_Per_Row);
+		}
+		return notation;
+	}
+	
+	private static Map<String, Integer> initPositionToCoordinateMap(){
+		final Map<String, Integer> positionToCoordinate = new HashMap<>();
+		for(int i = 0; i < Num_Tiles; i++){
+			positionToCoordinate.put(Algebraic_Notation[i], i);
+		}
+		return ImmutableMap.copyOf(positionToCoordinate);
+	}
+	
+	public static int getCoordinateAtPosition(final String position){
+		final Integer coordinate = Position_To_Coordinate.get(position);
+		if(coordinate == null){
+			throw new RuntimeException("Invalid position " + position);
+		}
+		return coordinate;
+	}
+	
+	public static String getPositionAtCoordinate(final int coordinate){
+		return Algebraic_Notation[coordinate];
+	}
 
 }
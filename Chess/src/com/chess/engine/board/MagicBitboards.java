@@ -0,0 +1,150 @@
+package com.chess.engine.board;
+
+public final class MagicBitboards {
+
+	// per-row seeds for the magic search, picked offline so that each row finds its magics within a few tries
+	private static final int[] Rook_Seeds = {82, 17, 250, 56, 159, 210, 204, 30};
+	private static final int[] Bishop_Seeds = {276, 236, 147, 11, 47, 210, 26, 146};
+	private static final int Max_Magic_Attempts = 100_000_000;
+
+	private static final int[] Rook_Row_Directions = {-1, 1, 0, 0};
+	private static final int[] Rook_Column_Directions = {0, 0, -1, 1};
+	private static final int[] Bishop_Row_Directions = {-1, -1, 1, 1};
+	private static final int[] Bishop_Column_Directions = {-1, 1, -1, 1};
+
+	private static final long[] Rook_Masks = new long[BoardUtils.Num_Tiles];
+	private static final long[] Rook_Magics = new long[BoardUtils.Num_Tiles];
+	private static final int[] Rook_Shifts = new int[BoardUtils.Num_Tiles];
+	private static final long[][] Rook_Attacks = new long[BoardUtils.Num_Tiles][];
+	private static final long[] Bishop_Masks = new long[BoardUtils.Num_Tiles];
+	private static final long[] Bishop_Magics = new long[BoardUtils.Num_Tiles];
+	private static final int[] Bishop_Shifts = new int[BoardUtils.Num_Tiles];
+	private static final long[][] Bishop_Attacks = new long[BoardUtils.Num_Tiles][];
+
+	private static long randomState;
+
+	static{
+		for(int tile = 0; tile < BoardUtils.Num_Tiles; tile++){
+			if(tile % BoardUtils.Num_Tiles_Per_Row == 0){
+				randomState = Rook_Seeds[tile / BoardUtils.Num_Tiles_Per_Row];
+			}
+			initMagic(tile, Rook_Row_Directions, Rook_Column_Directions, Rook_Masks, Rook_Magics, Rook_Shifts, Rook_Attacks);
+		}
+		for(int tile = 0; tile < BoardUtils.Num_Tiles; tile++){
+			if(tile % BoardUtils.Num_Tiles_Per_Row == 0){
+				randomState = Bishop_Seeds[tile / BoardUtils.Num_Tiles_Per_Row];
+			}
+			initMagic(tile, Bishop_Row_Directions, Bishop_Column_Directions, Bishop_Masks, Bishop_Magics, Bishop_Shifts, Bishop_Attacks);
+		}
+	}
+
+	private MagicBitboards(){
+		throw new RuntimeException("You cannot instantiate me!");
+	}
+
+	public static long rookAttacks(final int tile, final long occupancy){
+		return Rook_Attacks[tile][(int) (((occupancy & Rook_Masks[tile]) * Rook_Magics[tile]) >>> Rook_Shifts[tile])];
+	}
+
+	public static long bishopAttacks(final int tile, final long occupancy){
+		return Bishop_Attacks[tile][(int) (((occupancy & Bishop_Masks[tile]) * Bishop_Magics[tile]) >>> Bishop_Shifts[tile])];
+	}
+
+	public static long queenAttacks(final int tile, final long occupancy){
+		return rookAttacks(tile, occupancy) | bishopAttacks(tile, occupancy);
+	}
+
+	private static void initMagic(final int tile,
+								  final int[] rowDirections,
+								  final int[] columnDirections,
+								  final long[] masks,
+								  final long[] magics,
+								  final int[] shifts,
+								  final long[][] attacks){
+		final long mask = relevantOccupancy(tile, rowDirections, columnDirections);
+		final int bits = BitBoard.count(mask);
+		final int size = 1 << bits;
+		final long[] occupancies = new long[size];
+		final long[] references = new long[size];
+		// carry-rippler walk over every subset of the mask
+		long subset = 0;
+		for(int i = 0; i < size; i++){
+			occupancies[i] = subset;
+			references[i] = slidingAttacks(tile, subset, rowDirections, columnDirections);
+			subset = (subset - mask) & mask;
+		}
+		final long[] table = new long[size];
+		final int[] epoch = new int[size];
+		final int shift = Long.SIZE - bits;
+		for(int attempt = 1; attempt <= Max_Magic_Attempts; attempt++){
+			final long magic = nextRandom() & nextRandom() & nextRandom();
+			if(BitBoard.count((mask * magic) & 0xFF00000000000000L) < 6){
+				continue;
+			}
+			boolean collision = false;
+			for(int i = 0; i < size && !collision; i++){
+				final int index = (int) ((occupancies[i] * magic) >>> shift);
+				if(epoch[index] != attempt){
+					epoch[index] = attempt;
+					table[index] = references[i];
+				} else if(table[index] != references[i]){
+					collision = true;
+				}
+			}
+			if(!collision){
+				masks[tile] = mask;
+				magics[tile] = magic;
+				shifts[tile] = shift;
+				attacks[tile] = table;
+				return;
+			}
+		}
+		throw new RuntimeException("No magic found for tile " + tile);
+	}
+
+	// ray squares from tile, leaving out the last square of each ray since it never blocks anything
+	private static long relevantOccupancy(final int tile, final int[] rowDirections, final int[] columnDirections){
+		long mask = 0;
+		for(int direction = 0; direction < rowDirections.length; direction++){
+			int row = tile / BoardUtils.Num_Tiles_Per_Row + rowDirections[direction];
+			int column = tile % BoardUtils.Num_Tiles_Per_Row + columnDirections[direction];
+			while(isOnBoard(row + rowDirections[direction], column + columnDirections[direction])){
+				mask |= BitBoard.squareMask(row * BoardUtils.Num_Tiles_Per_Row + column);
+				row += rowDirections[direction];
+				column += columnDirections[direction];
+			}
+		}
+		return mask;
+	}
+
+	private static long slidingAttacks(final int tile, final long occupancy, final int[] rowDirections, final int[] columnDirections){
+		long attacks = 0;
+		for(int direction = 0; direction < rowDirections.length; direction++){
+			int row = tile / BoardUtils.Num_Tiles_Per_Row + rowDirections[direction];
+			int column = tile % BoardUtils.Num_Tiles_Per_Row + columnDirections[direction];
+			while(isOnBoard(row, column)){
+				final long square = BitBoard.squareMask(row * BoardUtils.Num_Tiles_Per_Row + column);
+				attacks |= square;
+				if((occupancy & square) != 0){
+					break;
+				}
+				row += rowDirections[direction];
+				column += columnDirections[direction];
+			}
+		}
+		return attacks;
+	}
+
+	private static boolean isOnBoard(final int row, final int column){
+		return row >= 0 && row < BoardUtils.Num_Tiles_Per_Row && column >= 0 && column < BoardUtils.Num_Tiles_Per_Row;
+	}
+
+	// xorshift64*, only used while searching for magics
+	private static long nextRandom(){
+		randomState ^= randomState >>> 12;
+		randomState ^= randomState << 25;
+		randomState ^= randomState >>> 27;
+		return randomState * 0x2545F4914F6CDD1DL;
+	}
+
+}
@@ -1,8 +1,11 @@
 package com.chess.engine.board;
 
 import com.chess.engine.board.Board.Builder;
+import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceUtils;
 import com.chess.engine.pieces.Rook;
+import com.chess.engine.player.Player;
 
 public abstract class Move {
 	
@@ -22,8 +25,8 @@ public abstract class Move {
 	public Board execute() {
 		final Builder builder = new Builder();
 		for(final Piece piece : this.board.currentPlayer().getActivePieces()){
-			//TODO hashcode and equals for pieces
-			if(!this.MovedPiece.equals(piece)){
+			// board pieces are PieceUtils flyweights, so identity is equality here
+			if(this.MovedPiece != piece){
 				builder.setPiece(piece);
 			}
 		}
@@ -31,11 +34,55 @@ public abstract class Move {
 			builder.setPiece(piece);
 		}
 		//move the moved piece!
-		builder.setPiece(this.MovedPiece.movePiece(this));
+		final Piece movedPiece = this.MovedPiece.movePiece(this);
+		builder.setPiece(movedPiece);
 		builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+		builder.setZobristHash(calculateZobristHash(movedPiece, null), calculatePawnHash(movedPiece));
+		builder.setPieceSquareScore(calculatePieceSquareScore(movedPiece));
 		return builder.build();
 	}
 	
+	// xors the changed pieces, side, castling rights and en passant file into the parent's key
+	long calculateZobristHash(final Piece placedPiece, final Pawn enPassantPawn){
+		final int castlingRights = this.board.getCastlingRights();
+		long zobristHash = this.board.getZobristHash() ^ Zobrist.side() ^
+						   Zobrist.piece(this.MovedPiece) ^ Zobrist.piece(placedPiece) ^
+						   Zobrist.castling(castlingRights) ^
+						   Zobrist.castling(BoardUtils.updateCastlingRights(castlingRights, getCurrentCoordinate(), this.destinationCoordinate)) ^
+						   Zobrist.enPassant(this.board.getEnPassantPawn()) ^ Zobrist.enPassant(enPassantPawn);
+		if(isAttack()){
+			zobristHash ^= Zobrist.piece(getAttackPiece());
+		}
+		return zobristHash;
+	}
+	
+	long calculatePawnHash(final Piece placedPiece){
+		long pawnHash = this.board.getPawnHash() ^ Zobrist.pawn(this.MovedPiece) ^ Zobrist.pawn(placedPiece);
+		if(isAttack()){
+			pawnHash ^= Zobrist.pawn(getAttackPiece());
+		}
+		return pawnHash;
+	}
+	
+	// the same update for the material and piece-square score
+	int calculatePieceSquareScore(final Piece placedPiece){
+		int pieceSquareScore = this.board.getPieceSquareScore() - PieceSquareTables.score(this.MovedPiece) + PieceSquareTables.score(placedPiece);
+		if(isAttack()){
+			pieceSquareScore -= PieceSquareTables.score(getAttackPiece());
+		}
+		return pieceSquareScore;
+	}
+	
+	public Board getBoard(){
+		return this.board;
+	}
+	
+	@Override
+	public String toString(){
+		return BoardUtils.getPositionAtCoordinate(getCurrentCoordinate()) +
+			   BoardUtils.getPositionAtCoordinate(this.destinationCoordinate);
+	}
+	
 	@Override
 	public int hashCode(){
 		final int prime = 31;
@@ -103,6 +150,16 @@ public abstract class Move {
 			this.attackedPiece = attackedPiece;
 		}
 		
+		@Override
+		public boolean isAttack(){
+			return true;
+		}
+		
+		@Override
+		public Piece getAttackPiece(){
+			return this.attackedPiece;
+		}
+		
 	}
 	public static final class PawnMove extends Move {
 
@@ -131,6 +188,27 @@ public abstract class Move {
 									   final Piece attackedPiece) {
 			super(board, movedPiece, destinationCoordinate, attackedPiece);
 		}
+		
+		@Override
+		public Board execute(){
+			final Builder builder = new Builder();
+			for(final Piece piece : this.board.currentPlayer().getActivePieces()){
+				if(this.MovedPiece != piece){
+					builder.setPiece(piece);
+				}
+			}
+			for(final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()){
+				if(piece != this.getAttackPiece()){
+					builder.setPiece(piece);
+				}
+			}
+			final Piece movedPiece = this.MovedPiece.movePiece(this);
+			builder.setPiece(movedPiece);
+			builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+			builder.setZobristHash(calculateZobristHash(movedPiece, null), calculatePawnHash(movedPiece));
+			builder.setPieceSquareScore(calculatePieceSquareScore(movedPiece));
+			return builder.build();
+		}
 	}
 	
 	public static final class PawnJump extends Move {
@@ -140,6 +218,87 @@ public abstract class Move {
 						final int destinationCoordinate) {
 			super(board, movedPiece, destinationCoordinate);
 		}
+		
+		@Override
+		public Board execute(){
+			final Builder builder = new Builder();
+			for(final Piece piece : this.board.currentPlayer().getActivePieces()){
+				if(this.MovedPiece != piece){
+					builder.setPiece(piece);
+				}
+			}
+			for(final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()){
+				builder.setPiece(piece);
+			}
+			final Pawn movedPawn = (Pawn)this.MovedPiece.movePiece(this);
+			builder.setPiece(movedPawn);
+			builder.setEnPassanPawn(movedPawn);
+			builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+			builder.setZobristHash(calculateZobristHash(movedPawn, movedPawn), calculatePawnHash(movedPawn));
+			builder.setPieceSquareScore(calculatePieceSquareScore(movedPawn));
+			return builder.build();
+		}
+	}
+	
+	public static class PawnPromotion extends Move {
+		
+		final Move decoratedMove;
+		final Piece promotionPiece;
+		
+		public PawnPromotion(final Move decoratedMove,
+							 final Piece promotionPiece) {
+			super(decoratedMove.getBoard(), decoratedMove.getMovedPiece(), decoratedMove.getDestinationCoordinate());
+			this.decoratedMove = decoratedMove;
+			this.promotionPiece = promotionPiece;
+		}
+		
+		@Override
+		public Board execute(){
+			final Builder builder = new Builder();
+			for(final Piece piece : this.board.currentPlayer().getActivePieces()){
+				if(this.MovedPiece != piece){
+					builder.setPiece(piece);
+				}
+			}
+			for(final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()){
+				builder.setPiece(piece);
+			}
+			builder.setPiece(this.promotionPiece);
+			builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+			builder.setZobristHash(calculateZobristHash(this.promotionPiece, null), calculatePawnHash(this.promotionPiece));
+			builder.setPieceSquareScore(calculatePieceSquareScore(this.promotionPiece));
+			return builder.build();
+		}
+		
+		@Override
+		public boolean isAttack(){
+			return this.decoratedMove.isAttack();
+		}
+		
+		@Override
+		public Piece getAttackPiece(){
+			return this.decoratedMove.getAttackPiece();
+		}
+		
+		public Piece getPromotionPiece(){
+			return this.promotionPiece;
+		}
+		
+		@Override
+		public int hashCode(){
+			return 31 * super.hashCode() + this.promotionPiece.getPieceType().hashCode();
+		}
+		
+		@Override
+		public boolean equals(final Object other){
+			return other instanceof PawnPromotion && super.equals(other) &&
+				   this.promotionPiece.getPieceType() == ((PawnPromotion) other).getPromotionPiece().getPieceType();
+		}
+		
+		@Override
+		public String toString(){
+			return super.toString() + this.promotionPiece.toString().toLowerCase();
+		}
 	}
 
 	static abstract class CastleMove extends Move {
@@ -169,8 +328,7 @@ public abstract class Move {
 		public Board execute(){
 			final Builder builder = new Builder();
 			for(final Piece piece : this.board.currentPlayer().getActivePieces()){
-				//TODO hashcode and equals for pieces
-				if(!this.MovedPiece.equals(piece) && !castleRook.equals(piece)){
+				if(this.MovedPiece != piece && this.castleRook != piece){
 					builder.setPiece(piece);
 				}
 			}
@@ -178,10 +336,15 @@ public abstract class Move {
 				builder.setPiece(piece);
 			}
 			//move the moved piece!
-			builder.setPiece(this.MovedPiece.movePiece(this));
-			//TODO look into the first move on normal pieces
-			builder.setPiece(new Rook(this.castleRookDestination, this.castleRook.getPieceAllance()));
+			final Piece movedPiece = this.MovedPiece.movePiece(this);
+			final Rook movedRook = PieceUtils.getMovedRook(this.castleRook.getPieceAllance(), this.castleRookDestination);
+			builder.setPiece(movedPiece);
+			builder.setPiece(movedRook);
 			builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+			builder.setZobristHash(calculateZobristHash(movedPiece, null) ^ Zobrist.piece(this.castleRook) ^ Zobrist.piece(movedRook),
+								  this.board.getPawnHash());
+			builder.setPieceSquareScore(calculatePieceSquareScore(movedPiece) -
+										PieceSquareTables.score(this.castleRook) + PieceSquareTables.score(movedRook));
 			return builder.build();
 		}
 		
@@ -229,6 +392,16 @@ public abstract class Move {
 		public Board execute(){
 			throw new RuntimeException("Cannot execute the null move!!!");
 		}
+		
+		@Override
+		public int getCurrentCoordinate(){
+			return -1;
+		}
+		
+		@Override
+		public String toString(){
+			return "Null Move";
+		}
 	}
 	
 	public static class MoveFactory{
@@ -238,14 +411,35 @@ public abstract class Move {
 		public static Move createMove(final Board board,
 				  final int currentCoordinate,
 				  final int destinationCoordinate){
-			for(final Move move : board.getAllLegalMoves()){
-				if(move.getCurrentCoordinate() == currentCoordinate &&
-				   move.getDestinationCoordinate() == destinationCoordinate){
-					return move;
-				}
+			if(!BoardUtils.isValidTileCoordinate(currentCoordinate) || !BoardUtils.isValidTileCoordinate(destinationCoordinate)){
+				return NULL_MOVE;
 			}
-			return NULL_MOVE;
+			return moveIndexAt(board, currentCoordinate).get(currentCoordinate, destinationCoordinate);
+		}
+
+		// promotionType is a piece type ordinal, -1 for a move that does not promote
+		public static Move createMove(final Board board,
+				  final int currentCoordinate,
+				  final int destinationCoordinate,
+				  final int promotionType){
+			if(!BoardUtils.isValidTileCoordinate(currentCoordinate) || !BoardUtils.isValidTileCoordinate(destinationCoordinate)){
+				return NULL_MOVE;
+			}
+			return moveIndexAt(board, currentCoordinate).get(currentCoordinate, destinationCoordinate, promotionType);
+		}
+
+		// matches from, destination and promotion piece of a MoveEncoding word
+		public static Move createMove(final Board board, final int encodedMove){
+			return createMove(board, MoveEncoding.from(encodedMove), MoveEncoding.destination(encodedMove),
+					MoveEncoding.promotionType(encodedMove));
+		}
+
+		// moves of the side owning the piece on the tile, like a scan over both players' legal moves
+		private static MoveIndex moveIndexAt(final Board board, final int currentCoordinate){
+			final Tile tile = board.getTile(currentCoordinate);
+			final Player owner = tile.isTileOccupied() && tile.getPiece().getPieceAllance().isBlack() ?
+				board.blackPlayer() : board.whitePlayer();
+			return owner.getMoveIndex();
 		}
 	}
 }
-
@@ -0,0 +1,147 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Move.CastleMove;
+import com.chess.engine.board.Move.PawnEnPassantAttackMove;
+import com.chess.engine.board.Move.PawnJump;
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.pieces.Piece.PieceType;
+
+public final class MoveEncoding {
+
+	// bits 0-5 from, 6-11 destination, 12-14 promotion type + 1, 15-17 moved type,
+	// 18-20 captured type + 1, 21 black mover, 22 en passant, 23 castle, 24 double push
+	public static final int None = 0;
+
+	private static final int Destination_Shift = 6;
+	private static final int Promotion_Shift = 12;
+	private static final int Moved_Shift = 15;
+	private static final int Captured_Shift = 18;
+	public static final int Flag_Black = 1 << 21;
+	public static final int Flag_En_Passant = 1 << 22;
+	public static final int Flag_Castle = 1 << 23;
+	public static final int Flag_Double_Push = 1 << 24;
+
+	// from, destination and promotion: enough to identify a move within one position
+	public static final int Short_Mask = (1 << Moved_Shift) - 1;
+
+	private static final PieceType[] Piece_Types = PieceType.values();
+
+	private MoveEncoding(){
+		throw new RuntimeException("You cannot instantiate me!");
+	}
+
+	public static int encode(final int from,
+							 final int destination,
+							 final PieceType movedType,
+							 final Alliance alliance,
+							 final PieceType capturedType,
+							 final PieceType promotionType,
+							 final int flags){
+		return encode(from, destination, movedType.ordinal(), alliance.isBlack(),
+				capturedType == null ? -1 : capturedType.ordinal(),
+				promotionType == null ? -1 : promotionType.ordinal(), flags);
+	}
+
+	// piece types as ordinals, -1 for no capture or no promotion
+	public static int encode(final int from,
+							 final int destination,
+							 final int movedType,
+							 final boolean blackMover,
+							 final int capturedType,
+							 final int promotionType,
+							 final int flags){
+		return from |
+			   (destination << Destination_Shift) |
+			   ((promotionType + 1) << Promotion_Shift) |
+			   (movedType << Moved_Shift) |
+			   ((capturedType + 1) << Captured_Shift) |
+			   (blackMover ? Flag_Black : 0) |
+			   flags;
+	}
+
+	public static int encode(final Move move){
+		if(move == Move.NULL_MOVE){
+			return None;
+		}
+		int flags = 0;
+		if(move instanceof PawnEnPassantAttackMove){
+			flags |= Flag_En_Passant;
+		} else if(move instanceof CastleMove){
+			flags |= Flag_Castle;
+		} else if(move instanceof PawnJump){
+			flags |= Flag_Double_Push;
+		}
+		return encode(move.getCurrentCoordinate(),
+					  move.getDestinationCoordinate(),
+					  move.getMovedPiece().getPieceType(),
+					  move.getMovedPiece().getPieceAllance(),
+					  move.isAttack() ? move.getAttackPiece().getPieceType() : null,
+					  move instanceof PawnPromotion ? ((PawnPromotion) move).getPromotionPiece().getPieceType() : null,
+					  flags);
+	}
+
+	public static int from(final int move){
+		return move & 0x3F;
+	}
+
+	public static int destination(final int move){
+		return (move >>> Destination_Shift) & 0x3F;
+	}
+
+	public static int movedType(final int move){
+		return (move >>> Moved_Shift) & 0x7;
+	}
+
+	// -1 when nothing is captured
+	public static int capturedType(final int move){
+		return ((move >>> Captured_Shift) & 0x7) - 1;
+	}
+
+	// -1 when the move is not a promotion
+	public static int promotionType(final int move){
+		return ((move >>> Promotion_Shift) & 0x7) - 1;
+	}
+
+	public static boolean isCapture(final int move){
+		return (move & (0x7 << Captured_Shift)) != 0;
+	}
+
+	public static boolean isPromotion(final int move){
+		return (move & (0x7 << Promotion_Shift)) != 0;
+	}
+
+	public static boolean isBlackMover(final int move){
+		return (move & Flag_Black) != 0;
+	}
+
+	public static boolean isEnPassant(final int move){
+		return (move & Flag_En_Passant) != 0;
+	}
+
+	public static boolean isCastle(final int move){
+		return (move & Flag_Castle) != 0;
+	}
+
+	public static boolean isDoublePush(final int move){
+		return (move & Flag_Double_Push) != 0;
+	}
+
+	public static int toShort(final int move){
+		return move & Short_Mask;
+	}
+
+	public static PieceType pieceType(final int typeOrdinal){
+		return Piece_Types[typeOrdinal];
+	}
+
+	public static String toString(final int move){
+		if(move == None){
+			return "0000";
+		}
+		final int promotionType = promotionType(move);
+		return BoardUtils.getPositionAtCoordinate(from(move)) + BoardUtils.getPositionAtCoordinate(destination(move)) +
+			   (promotionType < 0 ? "" : Piece_Types[promotionType].toString().toLowerCase());
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.chess.engine.board;
+
+import java.util.Collection;
+
+import com.chess.engine.board.Move.PawnPromotion;
+
+public final class MoveIndex {
+
+	// one bit per (from, destination) pair that has a move, a row of 64 bits per from tile
+	private final long[] destinations = new long[BoardUtils.Num_Tiles];
+	// number of set pairs in all rows before each from tile, turns a pair into its slot
+	private final int[] rowOffsets = new int[BoardUtils.Num_Tiles + 1];
+	// slot start into moves; promotions put up to four moves behind one pair
+	private final int[] slotStarts;
+	private final Move[] moves;
+
+	public MoveIndex(final Collection<Move> legalMoves){
+		for(final Move move : legalMoves){
+			this.destinations[move.getCurrentCoordinate()] |= BitBoard.squareMask(move.getDestinationCoordinate());
+		}
+		for(int from = 0; from < BoardUtils.Num_Tiles; from++){
+			this.rowOffsets[from + 1] = this.rowOffsets[from] + BitBoard.count(this.destinations[from]);
+		}
+		final int pairs = this.rowOffsets[BoardUtils.Num_Tiles];
+		this.slotStarts = new int[pairs + 1];
+		for(final Move move : legalMoves){
+			this.slotStarts[slot(move.getCurrentCoordinate(), move.getDestinationCoordinate()) + 1]++;
+		}
+		for(int i = 0; i < pairs; i++){
+			this.slotStarts[i + 1] += this.slotStarts[i];
+		}
+		this.moves = new Move[legalMoves.size()];
+		final int[] filled = new int[pairs];
+		for(final Move move : legalMoves){
+			final int slot = slot(move.getCurrentCoordinate(), move.getDestinationCoordinate());
+			this.moves[this.slotStarts[slot] + filled[slot]++] = move;
+		}
+	}
+
+	public boolean contains(final int from, final int destination){
+		return BitBoard.isSet(this.destinations[from], destination);
+	}
+
+	// the first move between the two tiles in generation order, queen first for promotions
+	public Move get(final int from, final int destination){
+		if(!contains(from, destination)){
+			return Move.NULL_MOVE;
+		}
+		return this.moves[this.slotStarts[slot(from, destination)]];
+	}
+
+	// promotionType is a piece type ordinal, -1 for a move that does not promote
+	public Move get(final int from, final int destination, final int promotionType){
+		if(!contains(from, destination)){
+			return Move.NULL_MOVE;
+		}
+		final int slot = slot(from, destination);
+		for(int i = this.slotStarts[slot]; i < this.slotStarts[slot + 1]; i++){
+			final Move move = this.moves[i];
+			final int movePromotionType = move instanceof PawnPromotion ?
+				((PawnPromotion) move).getPromotionPiece().getPieceType().ordinal() : -1;
+			if(movePromotionType == promotionType){
+				return move;
+			}
+		}
+		return Move.NULL_MOVE;
+	}
+
+	public boolean contains(final Move move){
+		return find(move) != Move.NULL_MOVE;
+	}
+
+	// the indexed move equal to the given one, which may have been built elsewhere around pieces of another board
+	public Move find(final Move move){
+		final int from = move.getCurrentCoordinate();
+		final int destination = move.getDestinationCoordinate();
+		if(from < 0 || !contains(from, destination)){
+			return Move.NULL_MOVE;
+		}
+		final int slot = slot(from, destination);
+		for(int i = this.slotStarts[slot]; i < this.slotStarts[slot + 1]; i++){
+			if(this.moves[i] == move || this.moves[i].equals(move)){
+				return this.moves[i];
+			}
+		}
+		return Move.NULL_MOVE;
+	}
+
+	public int size(){
+		return this.moves.length;
+	}
+
+	private int slot(final int from, final int destination){
+		return this.rowOffsets[from] + BitBoard.count(this.destinations[from] & (BitBoard.squareMask(destination) - 1));
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.chess.engine.board;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+public final class MoveList {
+
+	public static final int Default_Capacity = 256;
+
+	private int[] moves;
+	private int size;
+
+	public MoveList(){
+		this(Default_Capacity);
+	}
+
+	public MoveList(final int capacity){
+		this.moves = new int[capacity];
+	}
+
+	public void add(final int move){
+		if(this.size == this.moves.length){
+			this.moves = Arrays.copyOf(this.moves, this.moves.length * 2);
+		}
+		this.moves[this.size++] = move;
+	}
+
+	public int get(final int index){
+		return this.moves[index];
+	}
+
+	public void set(final int index, final int move){
+		this.moves[index] = move;
+	}
+
+	public void swap(final int first, final int second){
+		final int move = this.moves[first];
+		this.moves[first] = this.moves[second];
+		this.moves[second] = move;
+	}
+
+	public int size(){
+		return this.size;
+	}
+
+	public boolean isEmpty(){
+		return this.size == 0;
+	}
+
+	public void clear(){
+		this.size = 0;
+	}
+
+	// keeps the first newSize moves, used to filter a list in place
+	public void truncate(final int newSize){
+		this.size = newSize;
+	}
+
+	public boolean contains(final int move){
+		for(int i = 0; i < this.size; i++){
+			if(this.moves[i] == move){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public int[] toArray(){
+		return Arrays.copyOf(this.moves, this.size);
+	}
+
+	public static MoveList of(final Iterable<Move> moves){
+		final MoveList moveList = new MoveList();
+		for(final Move move : moves){
+			moveList.add(MoveEncoding.encode(move));
+		}
+		return moveList;
+	}
+
+	// resolves every move against the board's legal moves, NULL_MOVE where none matches
+	public List<Move> toMoves(final Board board){
+		final List<Move> resolved = new ArrayList<>(this.size);
+		for(int i = 0; i < this.size; i++){
+			resolved.add(Move.MoveFactory.createMove(board, this.moves[i]));
+		}
+		return ImmutableList.copyOf(resolved);
+	}
+
+	@Override
+	public String toString(){
+		final StringBuilder builder = new StringBuilder("[");
+		for(int i = 0; i < this.size; i++){
+			builder.append(i == 0 ? "" : ", ").append(MoveEncoding.toString(this.moves[i]));
+		}
+		return builder.append("]").toString();
+	}
+
+}
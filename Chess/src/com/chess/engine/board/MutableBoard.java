@@ -0,0 +1,457 @@
+package com.chess.engine.board;
+
+import java.util.Arrays;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board.Builder;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+public final class MutableBoard implements BitBoardPosition {
+
+	private static final int Max_Plies = 1024;
+
+	private static final int White = 0;
+	private static final int Black = 1;
+	private static final int Pawn_Type = PieceType.PAWN.ordinal();
+	private static final int Knight_Type = PieceType.KNIGHT.ordinal();
+	private static final int Bishop_Type = PieceType.BISHOP.ordinal();
+	private static final int Rook_Type = PieceType.ROOK.ordinal();
+	private static final int Queen_Type = PieceType.QUEEN.ordinal();
+	private static final int King_Type = PieceType.KING.ordinal();
+	private static final int[] Promotion_Types = {Queen_Type, Rook_Type, Bishop_Type, Knight_Type};
+
+	// bitboard index + 1 per tile, 0 when empty
+	private final int[] squares = new int[BoardUtils.Num_Tiles];
+	private final long[] pieceBitboards = new long[BitBoard.Num_Piece_Bitboards];
+	private final long[] occupancy = new long[2];
+	private int side;
+	private int castlingRights;
+	private int enPassantTile;
+	private long zobristHash;
+	// kept by addPiece and removePiece, which undo each other, so unmakeMove needs no copies of them
+	private long pawnHash;
+	private int pieceSquareScore;
+
+	private final int[] undoMoves = new int[Max_Plies];
+	private final int[] undoCastlingRights = new int[Max_Plies];
+	private final int[] undoEnPassantTiles = new int[Max_Plies];
+	private final long[] undoHashes = new long[Max_Plies];
+	private int ply;
+
+	// an empty board with white to move, to be filled through placePiece and setState
+	public MutableBoard(){
+		this.enPassantTile = -1;
+	}
+
+	public MutableBoard(final Board board){
+		for(int pieceIndex = 0; pieceIndex < BitBoard.Num_Piece_Bitboards; pieceIndex++){
+			final long pieces = board.getPieceBitboard(BitBoard.pieceTypeOf(pieceIndex), BitBoard.allianceOf(pieceIndex));
+			for(long remaining = pieces; remaining != 0; remaining = BitBoard.clearFirst(remaining)){
+				addPiece(pieceIndex + 1, BitBoard.firstSquare(remaining));
+			}
+		}
+		this.side = board.currentPlayer().getAlliance().isWhite() ? White : Black;
+		this.castlingRights = board.getCastlingRights();
+		final Pawn enPassantPawn = board.getEnPassantPawn();
+		this.enPassantTile = enPassantPawn == null ? -1 :
+			enPassantPawn.getPiecePosition() - (enPassantPawn.getPieceAllance().getDirection() * BoardUtils.Num_Tiles_Per_Row);
+		this.zobristHash = board.getZobristHash();
+	}
+
+	public Board toBoard(){
+		final Builder builder = new Builder();
+		for(int tile = 0; tile < BoardUtils.Num_Tiles; tile++){
+			if(this.squares[tile] != 0){
+				final int pieceIndex = this.squares[tile] - 1;
+				final PieceType pieceType = BitBoard.pieceTypeOf(pieceIndex);
+				final Alliance alliance = BitBoard.allianceOf(pieceIndex);
+				builder.setPiece(Piece.createPiece(pieceType, tile, alliance, isFirstMove(pieceType, alliance, tile)));
+			}
+		}
+		builder.setMoveMaker(this.side == White ? Alliance.White : Alliance.Black);
+		if(this.enPassantTile >= 0){
+			final Alliance pawnAlliance = this.side == White ? Alliance.Black : Alliance.White;
+			builder.setEnPassanPawn(new Pawn(this.enPassantTile + pawnAlliance.getDirection() * BoardUtils.Num_Tiles_Per_Row, pawnAlliance, false));
+		}
+		return builder.build();
+	}
+
+	private boolean isFirstMove(final PieceType pieceType, final Alliance alliance, final int tile){
+		switch(pieceType){
+			case PAWN:
+				return alliance.isWhite() ? BoardUtils.Seventh_Row[tile] : BoardUtils.Second_Row[tile];
+			case KING:
+				return (this.castlingRights & (alliance.isWhite() ?
+						BoardUtils.White_King_Side_Castle | BoardUtils.White_Queen_Side_Castle :
+						BoardUtils.Black_King_Side_Castle | BoardUtils.Black_Queen_Side_Castle)) != 0;
+			case ROOK:
+				return BoardUtils.updateCastlingRights(this.castlingRights, tile, tile) != this.castlingRights;
+			default:
+				return false;
+		}
+	}
+
+	public long getZobristHash(){
+		return this.zobristHash;
+	}
+
+	@Override
+	public long getPawnHash(){
+		return this.pawnHash;
+	}
+
+	@Override
+	public int getPieceSquareScore(){
+		return this.pieceSquareScore;
+	}
+
+	public Alliance getMoveMaker(){
+		return this.side == White ? Alliance.White : Alliance.Black;
+	}
+
+	public int getPly(){
+		return this.ply;
+	}
+
+	// bitboard index of the piece on the tile, -1 when empty
+	int pieceIndexAt(final int tile){
+		return this.squares[tile] - 1;
+	}
+
+	int getCastlingRights(){
+		return this.castlingRights;
+	}
+
+	// the tile a pawn capturing en passant lands on, -1 for none
+	int getEnPassantTile(){
+		return this.enPassantTile;
+	}
+
+	@Override
+	public long getPieceBitboard(final int pieceIndex){
+		return this.pieceBitboards[pieceIndex];
+	}
+
+	@Override
+	public long getOccupancy(final int side){
+		return this.occupancy[side];
+	}
+
+	// empties the board and its undo stack so a position can be written into it without allocating
+	public void clear(){
+		Arrays.fill(this.squares, 0);
+		Arrays.fill(this.pieceBitboards, BitBoard.Empty);
+		this.occupancy[White] = this.occupancy[Black] = BitBoard.Empty;
+		this.pawnHash = 0L;
+		this.pieceSquareScore = 0;
+		this.ply = 0;
+	}
+
+	public void placePiece(final int pieceIndex, final int tile){
+		addPiece(pieceIndex + 1, tile);
+	}
+
+	public void setState(final Alliance moveMaker, final int castlingRights, final int enPassantTile, final long zobristHash){
+		this.side = moveMaker.isWhite() ? White : Black;
+		this.castlingRights = castlingRights;
+		this.enPassantTile = enPassantTile;
+		this.zobristHash = zobristHash;
+	}
+
+	public boolean isInCheck(){
+		return isSquareAttacked(kingTile(this.side), this.side ^ 1);
+	}
+
+	// clears moves, fills it with the strictly legal moves and returns their number.
+	// legality comes from the checkers and pinned pieces of the current position, without making any move
+	public int generateLegalMoves(final MoveList moves){
+		moves.clear();
+		generatePseudoLegalMoves(moves);
+		final int them = this.side ^ 1;
+		final int kingTile = kingTile(this.side);
+		final long occupied = this.occupancy[White] | this.occupancy[Black];
+		final long checkers = getAttackers(kingTile, them, occupied);
+		final long pinned = pinnedPieces(kingTile, them, occupied);
+		long evasionMask = BitBoard.Full;
+		if(checkers != 0){
+			evasionMask = BitBoard.clearFirst(checkers) != 0 ? BitBoard.Empty :
+				checkers | AttackTables.between(kingTile, BitBoard.firstSquare(checkers));
+		}
+		int legalMoves = 0;
+		for(int i = 0; i < moves.size(); i++){
+			final int move = moves.get(i);
+			final int from = MoveEncoding.from(move);
+			final int destination = MoveEncoding.destination(move);
+			final boolean legal;
+			if(from == kingTile){
+				legal = getAttackers(destination, them, occupied ^ BitBoard.squareMask(kingTile)) == 0;
+			} else if(MoveEncoding.isEnPassant(move)){
+				legal = isLegalEnPassant(move, kingTile, them, occupied);
+			} else{
+				legal = BitBoard.isSet(evasionMask, destination) &&
+						(!BitBoard.isSet(pinned, from) || BitBoard.isSet(AttackTables.line(kingTile, from), destination));
+			}
+			if(legal){
+				moves.set(legalMoves++, move);
+			}
+		}
+		moves.truncate(legalMoves);
+		return legalMoves;
+	}
+
+	// our pieces that are the only blocker between the king and an enemy slider on the same line
+	private long pinnedPieces(final int kingTile, final int them, final long occupied){
+		final long queens = this.pieceBitboards[pieceIndex(Queen_Type, them)];
+		final long snipers = (MagicBitboards.rookAttacks(kingTile, BitBoard.Empty) & (this.pieceBitboards[pieceIndex(Rook_Type, them)] | queens)) |
+							 (MagicBitboards.bishopAttacks(kingTile, BitBoard.Empty) & (this.pieceBitboards[pieceIndex(Bishop_Type, them)] | queens));
+		long pinned = 0;
+		for(long remaining = snipers; remaining != 0; remaining = BitBoard.clearFirst(remaining)){
+			final long blockers = AttackTables.between(kingTile, BitBoard.firstSquare(remaining)) & occupied;
+			if(blockers != 0 && BitBoard.clearFirst(blockers) == 0){
+				pinned |= blockers & this.occupancy[this.side];
+			}
+		}
+		return pinned;
+	}
+
+	// en passant clears two squares on one row at once, so it is checked on the occupancy after the capture
+	private boolean isLegalEnPassant(final int move, final int kingTile, final int them, final long occupied){
+		final int destination = MoveEncoding.destination(move);
+		final long capturedPawn = BitBoard.squareMask(capturedTile(move, destination));
+		final long occupiedAfter = (occupied ^ BitBoard.squareMask(MoveEncoding.from(move)) ^ capturedPawn) | BitBoard.squareMask(destination);
+		return (getAttackers(kingTile, them, occupiedAfter) & ~capturedPawn) == 0;
+	}
+
+	public void makeMove(final int move){
+		final int from = MoveEncoding.from(move);
+		final int destination = MoveEncoding.destination(move);
+		final int movedPiece = this.squares[from];
+		this.undoMoves[this.ply] = move;
+		this.undoCastlingRights[this.ply] = this.castlingRights;
+		this.undoEnPassantTiles[this.ply] = this.enPassantTile;
+		this.undoHashes[this.ply] = this.zobristHash;
+
+		long hash = this.zobristHash ^ Zobrist.side() ^ Zobrist.castling(this.castlingRights) ^ Zobrist.enPassantTile(this.enPassantTile);
+		if(MoveEncoding.isCapture(move)){
+			final int capturedTile = capturedTile(move, destination);
+			hash ^= Zobrist.piece(this.squares[capturedTile] - 1, capturedTile);
+			removePiece(capturedTile);
+		}
+
+		removePiece(from);
+		final int promotionType = MoveEncoding.promotionType(move);
+		final int placedPiece = promotionType < 0 ? movedPiece : pieceIndex(promotionType, this.side) + 1;
+		addPiece(placedPiece, destination);
+		hash ^= Zobrist.piece(movedPiece - 1, from) ^ Zobrist.piece(placedPiece - 1, destination);
+
+		if(MoveEncoding.isCastle(move)){
+			final int rookFrom = destination > from ? from + 3 : from - 4;
+			final int rookDestination = destination > from ? from + 1 : from - 1;
+			final int rook = this.squares[rookFrom];
+			removePiece(rookFrom);
+			addPiece(rook, rookDestination);
+			hash ^= Zobrist.piece(rook - 1, rookFrom) ^ Zobrist.piece(rook - 1, rookDestination);
+		}
+
+		this.castlingRights = BoardUtils.updateCastlingRights(this.castlingRights, from, destination);
+		this.enPassantTile = MoveEncoding.isDoublePush(move) ? (from + destination) / 2 : -1;
+		this.zobristHash = hash ^ Zobrist.castling(this.castlingRights) ^ Zobrist.enPassantTile(this.enPassantTile);
+		this.side ^= 1;
+		this.ply++;
+	}
+
+	public void unmakeMove(){
+		this.ply--;
+		this.side ^= 1;
+		final int move = this.undoMoves[this.ply];
+		final int from = MoveEncoding.from(move);
+		final int destination = MoveEncoding.destination(move);
+		removePiece(destination);
+		addPiece(pieceIndex(MoveEncoding.movedType(move), this.side) + 1, from);
+
+		if(MoveEncoding.isCastle(move)){
+			final int rookFrom = destination > from ? from + 3 : from - 4;
+			final int rookDestination = destination > from ? from + 1 : from - 1;
+			final int rook = this.squares[rookDestination];
+			removePiece(rookDestination);
+			addPiece(rook, rookFrom);
+		}
+
+		if(MoveEncoding.isCapture(move)){
+			addPiece(pieceIndex(MoveEncoding.capturedType(move), this.side ^ 1) + 1, capturedTile(move, destination));
+		}
+		this.castlingRights = this.undoCastlingRights[this.ply];
+		this.enPassantTile = this.undoEnPassantTiles[this.ply];
+		this.zobristHash = this.undoHashes[this.ply];
+	}
+
+	// the en passant victim sits behind the destination from the mover's point of view
+	private int capturedTile(final int move, final int destination){
+		if(!MoveEncoding.isEnPassant(move)){
+			return destination;
+		}
+		return destination + (MoveEncoding.isBlackMover(move) ? -BoardUtils.Num_Tiles_Per_Row : BoardUtils.Num_Tiles_Per_Row);
+	}
+
+	public boolean isSquareAttacked(final int tile, final int bySide){
+		// a pawn of bySide attacks tile exactly when a pawn of the other side on tile would attack it
+		if((AttackTables.pawnAttacks(bySide ^ 1, tile) & this.pieceBitboards[pieceIndex(Pawn_Type, bySide)]) != 0 ||
+		   (AttackTables.knightAttacks(tile) & this.pieceBitboards[pieceIndex(Knight_Type, bySide)]) != 0 ||
+		   (AttackTables.kingAttacks(tile) & this.pieceBitboards[pieceIndex(King_Type, bySide)]) != 0){
+			return true;
+		}
+		final long occupied = this.occupancy[White] | this.occupancy[Black];
+		final long queens = this.pieceBitboards[pieceIndex(Queen_Type, bySide)];
+		return (MagicBitboards.rookAttacks(tile, occupied) & (this.pieceBitboards[pieceIndex(Rook_Type, bySide)] | queens)) != 0 ||
+			   (MagicBitboards.bishopAttacks(tile, occupied) & (this.pieceBitboards[pieceIndex(Bishop_Type, bySide)] | queens)) != 0;
+	}
+
+	// pieces of bySide attacking the tile through the given occupancy, which may have pieces taken out of it
+	public long getAttackers(final int tile, final int bySide, final long occupied){
+		final long queens = this.pieceBitboards[pieceIndex(Queen_Type, bySide)];
+		return (AttackTables.pawnAttacks(bySide ^ 1, tile) & this.pieceBitboards[pieceIndex(Pawn_Type, bySide)]) |
+			   (AttackTables.knightAttacks(tile) & this.pieceBitboards[pieceIndex(Knight_Type, bySide)]) |
+			   (AttackTables.kingAttacks(tile) & this.pieceBitboards[pieceIndex(King_Type, bySide)]) |
+			   (MagicBitboards.bishopAttacks(tile, occupied) & (this.pieceBitboards[pieceIndex(Bishop_Type, bySide)] | queens)) |
+			   (MagicBitboards.rookAttacks(tile, occupied) & (this.pieceBitboards[pieceIndex(Rook_Type, bySide)] | queens));
+	}
+
+	private void generatePseudoLegalMoves(final MoveList moves){
+		final int us = this.side;
+		for(long pieces = this.occupancy[us]; pieces != 0; pieces = BitBoard.clearFirst(pieces)){
+			final int from = BitBoard.firstSquare(pieces);
+			final int pieceType = typeOf(this.squares[from]);
+			if(pieceType == Pawn_Type){
+				generatePawnMoves(moves, from);
+			} else if(pieceType == Knight_Type){
+				generateTargetMoves(moves, from, Knight_Type, AttackTables.knightTargets(from));
+			} else if(pieceType == King_Type){
+				generateTargetMoves(moves, from, King_Type, AttackTables.kingTargets(from));
+				generateCastles(moves, from);
+			} else{
+				final long occupied = this.occupancy[White] | this.occupancy[Black];
+				final long attacks = pieceType == Bishop_Type ? MagicBitboards.bishopAttacks(from, occupied) :
+									 pieceType == Rook_Type ? MagicBitboards.rookAttacks(from, occupied) :
+									 MagicBitboards.queenAttacks(from, occupied);
+				for(long destinations = attacks & ~this.occupancy[us]; destinations != 0; destinations = BitBoard.clearFirst(destinations)){
+					final int destination = BitBoard.firstSquare(destinations);
+					final int piece = this.squares[destination];
+					moves.add(encode(from, destination, pieceType, piece == 0 ? -1 : typeOf(piece), -1, 0));
+				}
+			}
+		}
+	}
+
+	private void generateTargetMoves(final MoveList moves, final int from, final int pieceType, final int[] targets){
+		for(final int destination : targets){
+			final int piece = this.squares[destination];
+			if(piece == 0){
+				moves.add(encode(from, destination, pieceType, -1, -1, 0));
+			} else if(sideOf(piece) != this.side){
+				moves.add(encode(from, destination, pieceType, typeOf(piece), -1, 0));
+			}
+		}
+	}
+
+	private void generatePawnMoves(final MoveList moves, final int from){
+		final int us = this.side;
+		final int forward = us == White ? -BoardUtils.Num_Tiles_Per_Row : BoardUtils.Num_Tiles_Per_Row;
+		final int push = from + forward;
+		if(this.squares[push] == 0){
+			addPawnMove(moves, from, push, -1);
+			final boolean onStartRow = us == White ? BoardUtils.Seventh_Row[from] : BoardUtils.Second_Row[from];
+			if(onStartRow && this.squares[push + forward] == 0){
+				moves.add(encode(from, push + forward, Pawn_Type, -1, -1, MoveEncoding.Flag_Double_Push));
+			}
+		}
+		for(final int destination : AttackTables.pawnAttackTargets(us, from)){
+			final int piece = this.squares[destination];
+			if(piece != 0 && sideOf(piece) != us){
+				addPawnMove(moves, from, destination, typeOf(piece));
+			} else if(destination == this.enPassantTile){
+				moves.add(encode(from, destination, Pawn_Type, Pawn_Type, -1, MoveEncoding.Flag_En_Passant));
+			}
+		}
+	}
+
+	private void addPawnMove(final MoveList moves, final int from, final int destination, final int capturedType){
+		if(BoardUtils.First_Row[destination] || BoardUtils.Eighth_Row[destination]){
+			for(final int promotionType : Promotion_Types){
+				moves.add(encode(from, destination, Pawn_Type, capturedType, promotionType, 0));
+			}
+		} else{
+			moves.add(encode(from, destination, Pawn_Type, capturedType, -1, 0));
+		}
+	}
+
+	private void generateCastles(final MoveList moves, final int kingTile){
+		final int them = this.side ^ 1;
+		final int kingSide = this.side == White ? BoardUtils.White_King_Side_Castle : BoardUtils.Black_King_Side_Castle;
+		final int queenSide = this.side == White ? BoardUtils.White_Queen_Side_Castle : BoardUtils.Black_Queen_Side_Castle;
+		if((this.castlingRights & (kingSide | queenSide)) == 0 || isSquareAttacked(kingTile, them)){
+			return;
+		}
+		if((this.castlingRights & kingSide) != 0 &&
+		   this.squares[kingTile + 1] == 0 && this.squares[kingTile + 2] == 0 &&
+		   !isSquareAttacked(kingTile + 1, them) && !isSquareAttacked(kingTile + 2, them)){
+			moves.add(encode(kingTile, kingTile + 2, King_Type, -1, -1, MoveEncoding.Flag_Castle));
+		}
+		if((this.castlingRights & queenSide) != 0 &&
+		   this.squares[kingTile - 1] == 0 && this.squares[kingTile - 2] == 0 && this.squares[kingTile - 3] == 0 &&
+		   !isSquareAttacked(kingTile - 1, them) && !isSquareAttacked(kingTile - 2, them)){
+			moves.add(encode(kingTile, kingTile - 2, King_Type, -1, -1, MoveEncoding.Flag_Castle));
+		}
+	}
+
+	private int kingTile(final int side){
+		return BitBoard.firstSquare(this.pieceBitboards[pieceIndex(King_Type, side)]);
+	}
+
+	private void addPiece(final int piece, final int tile){
+		final long mask = BitBoard.squareMask(tile);
+		this.squares[tile] = piece;
+		this.pieceBitboards[piece - 1] |= mask;
+		this.occupancy[sideOf(piece)] |= mask;
+		this.pieceSquareScore += PieceSquareTables.score(piece - 1, tile);
+		if(typeOf(piece) == Pawn_Type){
+			this.pawnHash ^= Zobrist.piece(piece - 1, tile);
+		}
+	}
+
+	private void removePiece(final int tile){
+		final int piece = this.squares[tile];
+		final long mask = ~BitBoard.squareMask(tile);
+		this.squares[tile] = 0;
+		this.pieceBitboards[piece - 1] &= mask;
+		this.occupancy[sideOf(piece)] &= mask;
+		this.pieceSquareScore -= PieceSquareTables.score(piece - 1, tile);
+		if(typeOf(piece) == Pawn_Type){
+			this.pawnHash ^= Zobrist.piece(piece - 1, tile);
+		}
+	}
+
+	private int encode(final int from, final int destination, final int movedType,
+					   final int capturedType, final int promotionType, final int flags){
+		return MoveEncoding.encode(from, destination, movedType, this.side == Black, capturedType, promotionType, flags);
+	}
+
+	private static int typeOf(final int piece){
+		return (piece - 1) % BitBoard.Num_Piece_Types;
+	}
+
+	private static int sideOf(final int piece){
+		return (piece - 1) / BitBoard.Num_Piece_Types;
+	}
+
+	private static int pieceIndex(final int pieceType, final int side){
+		return side * BitBoard.Num_Piece_Types + pieceType;
+	}
+
+	@Override
+	public String toString(){
+		return toBoard().toString();
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+// material plus piece-square values for the opening and the endgame, packed into one int as endgame << 16 + opening
+// so a move updates both with one addition. scores are from white's point of view
+public final class PieceSquareTables {
+
+	// tiles from a8 to h1 as seen by white, mirrored for black
+	private static final int[] Pawn_Opening = {
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		 50,  50,  50,  50,  50,  50,  50,  50,
+		 10,  10,  20,  30,  30,  20,  10,  10,
+		  5,   5,  10,  25,  25,  10,   5,   5,
+		  0,   0,   0,  20,  20,   0,   0,   0,
+		  5,  -5, -10,   0,   0, -10,  -5,   5,
+		  5,  10,  10, -20, -20,  10,  10,   5,
+		  0,   0,   0,   0,   0,   0,   0,   0
+	};
+	private static final int[] Pawn_Endgame = {
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		 80,  80,  80,  80,  80,  80,  80,  80,
+		 50,  50,  50,  50,  50,  50,  50,  50,
+		 30,  30,  30,  30,  30,  30,  30,  30,
+		 15,  15,  15,  15,  15,  15,  15,  15,
+		  5,   5,   5,   5,   5,   5,   5,   5,
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		  0,   0,   0,   0,   0,   0,   0,   0
+	};
+	private static final int[] Knight = {
+		-50, -40, -30, -30, -30, -30, -40, -50,
+		-40, -20,   0,   0,   0,   0, -20, -40,
+		-30,   0,  10,  15,  15,  10,   0, -30,
+		-30,   5,  15,  20,  20,  15,   5, -30,
+		-30,   0,  15,  20,  20,  15,   0, -30,
+		-30,   5,  10,  15,  15,  10,   5, -30,
+		-40, -20,   0,   5,   5,   0, -20, -40,
+		-50, -40, -30, -30, -30, -30, -40, -50
+	};
+	private static final int[] Bishop = {
+		-20, -10, -10, -10, -10, -10, -10, -20,
+		-10,   0,   0,   0,   0,   0,   0, -10,
+		-10,   0,   5,  10,  10,   5,   0, -10,
+		-10,   5,   5,  10,  10,   5,   5, -10,
+		-10,   0,  10,  10,  10,  10,   0, -10,
+		-10,  10,  10,  10,  10,  10,  10, -10,
+		-10,   5,   0,   0,   0,   0,   5, -10,
+		-20, -10, -10, -10, -10, -10, -10, -20
+	};
+	private static final int[] Rook = {
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		  5,  10,  10,  10,  10,  10,  10,   5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		  0,   0,   0,   5,   5,   0,   0,   0
+	};
+	private static final int[] Queen = {
+		-20, -10, -10,  -5,  -5, -10, -10, -20,
+		-10,   0,   0,   0,   0,   0,   0, -10,
+		-10,   0,   5,   5,   5,   5,   0, -10,
+		 -5,   0,   5,   5,   5,   5,   0,  -5,
+		  0,   0,   5,   5,   5,   5,   0,  -5,
+		-10,   5,   5,   5,   5,   5,   0, -10,
+		-10,   0,   5,   0,   0,   0,   0, -10,
+		-20, -10, -10,  -5,  -5, -10, -10, -20
+	};
+	private static final int[] King_Opening = {
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-20, -30, -30, -40, -40, -30, -30, -20,
+		-10, -20, -20, -20, -20, -20, -20, -10,
+		 20,  20,   0,   0,   0,   0,  20,  20,
+		 20,  30,  10,   0,   0,  10,  30,  20
+	};
+	private static final int[] King_Endgame = {
+		-50, -40, -30, -20, -20, -30, -40, -50,
+		-30, -20, -10,   0,   0, -10, -20, -30,
+		-30, -10,  20,  30,  30,  20, -10, -30,
+		-30, -10,  30,  40,  40,  30, -10, -30,
+		-30, -10,  30,  40,  40,  30, -10, -30,
+		-30, -10,  20,  30,  30,  20, -10, -30,
+		-30, -30,   0,   0,   0,   0, -30, -30,
+		-50, -30, -30, -30, -30, -30, -30, -50
+	};
+
+	// packed score per bitboard index and tile, negated for black
+	private static final int[][] Scores = new int[BitBoard.Num_Piece_Bitboards][BoardUtils.Num_Tiles];
+
+	static {
+		final int[][] opening = {Pawn_Opening, Knight, Bishop, Rook, Queen, King_Opening};
+		final int[][] endgame = {Pawn_Endgame, Knight, Bishop, Rook, Queen, King_Endgame};
+		for(final PieceType pieceType : PieceType.values()){
+			// kings are never traded, so their value would only cancel out
+			final int material = pieceType.isKing() ? 0 : pieceType.getPieceValue();
+			for(final Alliance alliance : Alliance.values()){
+				for(int tile = 0; tile < BoardUtils.Num_Tiles; tile++){
+					final int whiteTile = alliance.isWhite() ? tile : tile ^ 56;
+					final int score = pack(material + opening[pieceType.ordinal()][whiteTile], material + endgame[pieceType.ordinal()][whiteTile]);
+					Scores[BitBoard.index(pieceType, alliance)][tile] = alliance.isWhite() ? score : -score;
+				}
+			}
+		}
+	}
+
+	private PieceSquareTables(){
+		throw new RuntimeException("You cannot instantiate me!");
+	}
+
+	public static int score(final int pieceIndex, final int tileCoordinate){
+		return Scores[pieceIndex][tileCoordinate];
+	}
+
+	public static int score(final Piece piece){
+		return Scores[BitBoard.index(piece.getPieceType(), piece.getPieceAllance())][piece.getPiecePosition()];
+	}
+
+	public static int pack(final int opening, final int endgame){
+		return (endgame << 16) + opening;
+	}
+
+	public static int opening(final int score){
+		return (short) score;
+	}
+
+	// rounds away the borrow the opening half takes from the endgame half when it is negative
+	public static int endgame(final int score){
+		return (score + 0x8000) >> 16;
+	}
+
+	// full recomputation, used when a board is built without an incrementally maintained score
+	public static int calculateScore(final long[] pieceBitboards){
+		int score = 0;
+		for(int pieceIndex = 0; pieceIndex < pieceBitboards.length; pieceIndex++){
+			for(long pieces = pieceBitboards[pieceIndex]; pieces != 0; pieces = BitBoard.clearFirst(pieces)){
+				score += Scores[pieceIndex][BitBoard.firstSquare(pieces)];
+			}
+		}
+		return score;
+	}
+
+}
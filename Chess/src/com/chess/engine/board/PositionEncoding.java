@@ -0,0 +1,244 @@
+package com.chess.engine.board;
+
+import java.nio.ByteBuffer;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.PieceUtils;
+
+public final class PositionEncoding {
+
+	// bytes 0-7 zobrist key, 8-15 occupancy, 16-31 one nibble per occupied tile from a8 onwards.
+	// a nibble is a bitboard index, or one of the codes below that fold in the rest of the position
+	public static final int Record_Size = 32;
+
+	private static final int Hash_Offset = 0;
+	private static final int Occupancy_Offset = 8;
+	private static final int Pieces_Offset = 16;
+	private static final int Max_Pieces = 32;
+	private static final int Nibbles_Per_Long = 16;
+
+	// rook on its corner with the castling right still attached, its colour follows from the corner
+	private static final int Castle_Rook = 12;
+	// pawn that has just pushed two tiles, its colour follows from its row
+	private static final int En_Passant_Pawn = 13;
+	// black king with black to move; without it white is to move
+	private static final int Black_King_To_Move = 14;
+
+	private static final int Black_King = BitBoard.index(PieceType.KING, Alliance.Black);
+	private static final int White_Rook = BitBoard.index(PieceType.ROOK, Alliance.White);
+	private static final int Black_Rook = BitBoard.index(PieceType.ROOK, Alliance.Black);
+
+	private PositionEncoding(){
+		throw new RuntimeException("You cannot instantiate me!");
+	}
+
+	public static void encode(final Board board, final ByteBuffer buffer, final int offset){
+		final Pawn enPassantPawn = board.getEnPassantPawn();
+		final int enPassantPawnTile = enPassantPawn == null ? -1 : enPassantPawn.getPiecePosition();
+		final boolean whiteToMove = board.currentPlayer().getAlliance().isWhite();
+		final long occupancy = board.getOccupancy();
+		long low = 0L;
+		long high = 0L;
+		int pieces = 0;
+		for(long remaining = occupancy; remaining != BitBoard.Empty; remaining = BitBoard.clearFirst(remaining)){
+			final int tile = BitBoard.firstSquare(remaining);
+			final Piece piece = board.getTile(tile).getPiece();
+			final long code = code(BitBoard.index(piece.getPieceType(), piece.getPieceAllance()), tile,
+					board.getCastlingRights(), enPassantPawnTile, whiteToMove);
+			if(pieces < Nibbles_Per_Long){
+				low |= code << (4 * pieces);
+			} else if(pieces < Max_Pieces){
+				high |= code << (4 * (pieces - Nibbles_Per_Long));
+			}
+			pieces++;
+		}
+		write(buffer, offset, board.getZobristHash(), occupancy, low, high, pieces);
+	}
+
+	public static void encode(final MutableBoard board, final ByteBuffer buffer, final int offset){
+		final int enPassantTile = board.getEnPassantTile();
+		final boolean whiteToMove = board.getMoveMaker().isWhite();
+		// the double-pushed pawn stands one row past the en passant tile, seen from the side to move
+		final int enPassantPawnTile = enPassantTile < 0 ? -1 :
+			enPassantTile + (whiteToMove ? BoardUtils.Num_Tiles_Per_Row : -BoardUtils.Num_Tiles_Per_Row);
+		long occupancy = BitBoard.Empty;
+		long low = 0L;
+		long high = 0L;
+		int pieces = 0;
+		for(int tile = 0; tile < BoardUtils.Num_Tiles; tile++){
+			final int pieceIndex = board.pieceIndexAt(tile);
+			if(pieceIndex < 0){
+				continue;
+			}
+			occupancy |= BitBoard.squareMask(tile);
+			final long code = code(pieceIndex, tile, board.getCastlingRights(), enPassantPawnTile, whiteToMove);
+			if(pieces < Nibbles_Per_Long){
+				low |= code << (4 * pieces);
+			} else if(pieces < Max_Pieces){
+				high |= code << (4 * (pieces - Nibbles_Per_Long));
+			}
+			pieces++;
+		}
+		write(buffer, offset, board.getZobristHash(), occupancy, low, high, pieces);
+	}
+
+	public static Board decode(final ByteBuffer buffer, final int offset){
+		final long occupancy = buffer.getLong(offset + Occupancy_Offset);
+		final int castlingRights = castlingRights(buffer, offset);
+		final Board.Builder builder = new Board.Builder();
+		Alliance moveMaker = Alliance.White;
+		int pieces = 0;
+		for(long remaining = occupancy; remaining != BitBoard.Empty; remaining = BitBoard.clearFirst(remaining)){
+			final int tile = BitBoard.firstSquare(remaining);
+			final int code = nibble(buffer, offset, pieces++);
+			if(code == Black_King_To_Move){
+				moveMaker = Alliance.Black;
+			} else if(code == En_Passant_Pawn){
+				builder.setEnPassanPawn(PieceUtils.getMovedPawn(enPassantAlliance(tile), tile));
+			}
+			final int pieceIndex = pieceIndex(code, tile);
+			final PieceType pieceType = BitBoard.pieceTypeOf(pieceIndex);
+			final Alliance alliance = BitBoard.allianceOf(pieceIndex);
+			builder.setPiece(PieceUtils.getPiece(pieceType, alliance, tile, isFirstMove(code, pieceType, alliance, tile, castlingRights)));
+		}
+		builder.setMoveMaker(moveMaker);
+		return builder.build();
+	}
+
+	// overwrites the mutable board with the record, allocating nothing
+	public static void decode(final ByteBuffer buffer, final int offset, final MutableBoard board){
+		final long occupancy = buffer.getLong(offset + Occupancy_Offset);
+		Alliance moveMaker = Alliance.White;
+		int enPassantPawnTile = -1;
+		int castlingRights = 0;
+		int pieces = 0;
+		board.clear();
+		for(long remaining = occupancy; remaining != BitBoard.Empty; remaining = BitBoard.clearFirst(remaining)){
+			final int tile = BitBoard.firstSquare(remaining);
+			final int code = nibble(buffer, offset, pieces++);
+			if(code == Black_King_To_Move){
+				moveMaker = Alliance.Black;
+			} else if(code == En_Passant_Pawn){
+				enPassantPawnTile = tile;
+			} else if(code == Castle_Rook){
+				castlingRights |= cornerRight(tile);
+			}
+			board.placePiece(pieceIndex(code, tile), tile);
+		}
+		final int enPassantTile = enPassantPawnTile < 0 ? -1 :
+			enPassantPawnTile + (moveMaker.isWhite() ? -BoardUtils.Num_Tiles_Per_Row : BoardUtils.Num_Tiles_Per_Row);
+		board.setState(moveMaker, castlingRights, enPassantTile, hash(buffer, offset));
+	}
+
+	public static long hash(final ByteBuffer buffer, final int offset){
+		return buffer.getLong(offset + Hash_Offset);
+	}
+
+	public static long occupancy(final ByteBuffer buffer, final int offset){
+		return buffer.getLong(offset + Occupancy_Offset);
+	}
+
+	// true when both records describe the same position, compared field by field without decoding
+	public static boolean equals(final ByteBuffer buffer, final int offset, final ByteBuffer otherBuffer, final int otherOffset){
+		for(int i = 0; i < Record_Size; i += Long.BYTES){
+			if(buffer.getLong(offset + i) != otherBuffer.getLong(otherOffset + i)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void write(final ByteBuffer buffer, final int offset, final long hash,
+							  final long occupancy, final long low, final long high, final int pieces){
+		if(pieces > Max_Pieces){
+			throw new RuntimeException("Cannot encode a position with " + pieces + " pieces");
+		}
+		buffer.putLong(offset + Hash_Offset, hash);
+		buffer.putLong(offset + Occupancy_Offset, occupancy);
+		buffer.putLong(offset + Pieces_Offset, low);
+		buffer.putLong(offset + Pieces_Offset + Long.BYTES, high);
+	}
+
+	private static int code(final int pieceIndex, final int tile, final int castlingRights,
+							final int enPassantPawnTile, final boolean whiteToMove){
+		if(pieceIndex == Black_King && !whiteToMove){
+			return Black_King_To_Move;
+		}
+		if(tile == enPassantPawnTile){
+			return En_Passant_Pawn;
+		}
+		if((pieceIndex == White_Rook || pieceIndex == Black_Rook) && (castlingRights & cornerRight(tile)) != 0){
+			return Castle_Rook;
+		}
+		return pieceIndex;
+	}
+
+	private static int pieceIndex(final int code, final int tile){
+		switch(code){
+			case Castle_Rook:
+				return tile < BoardUtils.Num_Tiles / 2 ? Black_Rook : White_Rook;
+			case En_Passant_Pawn:
+				return BitBoard.index(PieceType.PAWN, enPassantAlliance(tile));
+			case Black_King_To_Move:
+				return Black_King;
+			default:
+				return code;
+		}
+	}
+
+	// white pawns land on the fourth rank after a double push, black ones on the fifth
+	private static Alliance enPassantAlliance(final int tile){
+		return tile >= BoardUtils.Num_Tiles / 2 ? Alliance.White : Alliance.Black;
+	}
+
+	private static int cornerRight(final int tile){
+		switch(tile){
+			case 63:
+				return BoardUtils.White_King_Side_Castle;
+			case 56:
+				return BoardUtils.White_Queen_Side_Castle;
+			case 7:
+				return BoardUtils.Black_King_Side_Castle;
+			case 0:
+				return BoardUtils.Black_Queen_Side_Castle;
+			default:
+				return 0;
+		}
+	}
+
+	private static int castlingRights(final ByteBuffer buffer, final int offset){
+		int castlingRights = 0;
+		int pieces = 0;
+		for(long remaining = buffer.getLong(offset + Occupancy_Offset); remaining != BitBoard.Empty; remaining = BitBoard.clearFirst(remaining)){
+			if(nibble(buffer, offset, pieces++) == Castle_Rook){
+				castlingRights |= cornerRight(BitBoard.firstSquare(remaining));
+			}
+		}
+		return castlingRights;
+	}
+
+	private static boolean isFirstMove(final int code, final PieceType pieceType, final Alliance alliance,
+									   final int tile, final int castlingRights){
+		switch(pieceType){
+			case PAWN:
+				return alliance.isWhite() ? BoardUtils.Seventh_Row[tile] : BoardUtils.Second_Row[tile];
+			case KING:
+				return (castlingRights & (alliance.isWhite() ?
+						BoardUtils.White_King_Side_Castle | BoardUtils.White_Queen_Side_Castle :
+						BoardUtils.Black_King_Side_Castle | BoardUtils.Black_Queen_Side_Castle)) != 0;
+			case ROOK:
+				return code == Castle_Rook;
+			default:
+				return false;
+		}
+	}
+
+	private static int nibble(final ByteBuffer buffer, final int offset, final int index){
+		final long nibbles = buffer.getLong(offset + Pieces_Offset + (index < Nibbles_Per_Long ? 0 : Long.BYTES));
+		return (int) (nibbles >>> (4 * (index % Nibbles_Per_Long))) & 0xF;
+	}
+
+}
@@ -1,6 +1,7 @@
 package com.chess.engine.board;
 
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceUtils;
 import com.google.common.collect.ImmutableMap;
 
 import java.util.HashMap;
@@ -26,8 +27,30 @@ public abstract class Tile {
 		return ImmutableMap.copyOf(emptyTileMap);
 	}
 	
+	// indexed like PieceUtils: piece bitboard index, tile, first move
+	private static final OccupiedTile[][][] Occupied_Tiles_Cache = createAllPossibleOccupiedTiles();
+
+	private static OccupiedTile[][][] createAllPossibleOccupiedTiles(){
+		final OccupiedTile[][][] occupiedTiles = new OccupiedTile[BitBoard.Num_Piece_Bitboards][BoardUtils.Num_Tiles][2];
+		for(int pieceIndex = 0; pieceIndex < BitBoard.Num_Piece_Bitboards; pieceIndex++){
+			for(int i = 0; i < BoardUtils.Num_Tiles; i++){
+				for(int firstMove = 0; firstMove < 2; firstMove++){
+					occupiedTiles[pieceIndex][i][firstMove] = new OccupiedTile(i, PieceUtils.getPiece(BitBoard.pieceTypeOf(pieceIndex),
+							BitBoard.allianceOf(pieceIndex), i, firstMove == 1));
+				}
+			}
+		}
+		return occupiedTiles;
+	}
+	
 	public static Tile createTile(final int tileCoordinate, final Piece piece) {
-		return piece != null ? new OccupiedTile(tileCoordinate, piece) : Empty_Tiles_Cache.get(tileCoordinate);
+		if(piece == null){
+			return Empty_Tiles_Cache.get(tileCoordinate);
+		}
+		if(piece.getPiecePosition() != tileCoordinate){
+			return new OccupiedTile(tileCoordinate, piece);
+		}
+		return Occupied_Tiles_Cache[BitBoard.index(piece.getPieceType(), piece.getPieceAllance())][tileCoordinate][piece.isFirstMove() ? 1 : 0];
 	}
 	
 	public abstract boolean isTileOccupied();
@@ -0,0 +1,120 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+public final class Zobrist {
+
+	private static final long Seed = 0x5EED_C4E5_5EEDL;
+
+	private static final long[][] Piece_Keys = new long[BitBoard.Num_Piece_Bitboards][BoardUtils.Num_Tiles];
+	private static final long[] Castling_Keys = new long[BoardUtils.Num_Castling_Rights];
+	private static final long[] En_Passant_Keys = new long[BoardUtils.Num_Tiles_Per_Row];
+	private static final long Side_Key;
+
+	static {
+		final SplitMix64 random = new SplitMix64(Seed);
+		for(final long[] pieceKeys : Piece_Keys){
+			for(int i = 0; i < pieceKeys.length; i++){
+				pieceKeys[i] = random.next();
+			}
+		}
+		// one key per right, combinations are the xor of their members
+		final long[] rightKeys = {random.next(), random.next(), random.next(), random.next()};
+		for(int rights = 0; rights < Castling_Keys.length; rights++){
+			for(int right = 0; right < rightKeys.length; right++){
+				if((rights & (1 << right)) != 0){
+					Castling_Keys[rights] ^= rightKeys[right];
+				}
+			}
+		}
+		for(int i = 0; i < En_Passant_Keys.length; i++){
+			En_Passant_Keys[i] = random.next();
+		}
+		Side_Key = random.next();
+	}
+
+	private Zobrist(){
+		throw new RuntimeException("You cannot instantiate me!");
+	}
+
+	public static long piece(final int pieceIndex, final int tileCoordinate){
+		return Piece_Keys[pieceIndex][tileCoordinate];
+	}
+
+	public static long piece(final Piece piece, final int tileCoordinate){
+		return Piece_Keys[BitBoard.index(piece.getPieceType(), piece.getPieceAllance())][tileCoordinate];
+	}
+
+	public static long piece(final Piece piece){
+		return piece(piece, piece.getPiecePosition());
+	}
+
+	// the piece's key when it is a pawn, so the pawn-only key follows the same updates as the full one
+	public static long pawn(final Piece piece){
+		return piece.getPieceType() == PieceType.PAWN ? piece(piece) : 0L;
+	}
+
+	public static long castling(final int castlingRights){
+		return Castling_Keys[castlingRights];
+	}
+
+	public static long enPassant(final Pawn enPassantPawn){
+		return enPassantPawn == null ? 0L : En_Passant_Keys[enPassantPawn.getPiecePosition() % BoardUtils.Num_Tiles_Per_Row];
+	}
+
+	// keyed by the en passant target tile, -1 for none
+	public static long enPassantTile(final int enPassantTile){
+		return enPassantTile < 0 ? 0L : En_Passant_Keys[enPassantTile % BoardUtils.Num_Tiles_Per_Row];
+	}
+
+	public static long side(){
+		return Side_Key;
+	}
+
+	// full recomputation, used when a board is built without an incrementally maintained key
+	public static long calculateHash(final long[] pieceBitboards,
+									 final boolean whiteToMove,
+									 final int castlingRights,
+									 final Pawn enPassantPawn){
+		long hash = 0L;
+		for(int pieceIndex = 0; pieceIndex < pieceBitboards.length; pieceIndex++){
+			for(long pieces = pieceBitboards[pieceIndex]; pieces != 0; pieces = BitBoard.clearFirst(pieces)){
+				hash ^= Piece_Keys[pieceIndex][BitBoard.firstSquare(pieces)];
+			}
+		}
+		if(!whiteToMove){
+			hash ^= Side_Key;
+		}
+		return hash ^ castling(castlingRights) ^ enPassant(enPassantPawn);
+	}
+
+	public static long calculatePawnHash(final long[] pieceBitboards){
+		long hash = 0L;
+		for(final Alliance alliance : Alliance.values()){
+			final int pieceIndex = BitBoard.index(PieceType.PAWN, alliance);
+			for(long pawns = pieceBitboards[pieceIndex]; pawns != 0; pawns = BitBoard.clearFirst(pawns)){
+				hash ^= Piece_Keys[pieceIndex][BitBoard.firstSquare(pawns)];
+			}
+		}
+		return hash;
+	}
+
+	private static final class SplitMix64 {
+		private long state;
+
+		SplitMix64(final long seed){
+			this.state = seed;
+		}
+
+		long next(){
+			long z = (this.state += 0x9E3779B97F4A7C15L);
+			z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+			z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+			return z ^ (z >>> 31);
+		}
+	}
+
+}
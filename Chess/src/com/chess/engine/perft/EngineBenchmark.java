@@ -0,0 +1,109 @@
+package com.chess.engine.perft;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
+import com.chess.pgn.FenUtilities;
+import com.google.common.collect.Iterables;
+
+public class EngineBenchmark {
+
+	private static final int Warmup_Iterations = 5;
+	private static final int Measurement_Iterations = 10;
+	private static final long Iteration_Nanos = 1000000000L;
+
+	private final List<Board> boards;
+	private final List<Move> moves;
+	private long sink;
+
+	private EngineBenchmark(){
+		this.boards = new ArrayList<>();
+		this.moves = new ArrayList<>();
+		for(final String fen : PerftSuite.Reference_Positions){
+			final Board board = FenUtilities.createGameFromFEN(fen);
+			this.boards.add(board);
+			Iterables.addAll(this.moves, board.currentPlayer().getLegalMoves());
+		}
+	}
+
+	// usage: EngineBenchmark [perftDepth]
+	public static void main(final String[] args){
+		final EngineBenchmark benchmark = new EngineBenchmark();
+		final int perftDepth = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+		benchmark.run("Board construction", benchmark.boards.size(), benchmark::constructBoards);
+		benchmark.run("Piece.calculateLegalMoves", benchmark.boards.size(), benchmark::calculateLegalMoves);
+		benchmark.run("Move.execute", benchmark.moves.size(), benchmark::executeMoves);
+		benchmark.run("Perft depth " + perftDepth + " (nodes)", benchmark.perft(perftDepth), () -> benchmark.perft(perftDepth));
+		System.out.println("(sink " + benchmark.sink + ")");
+	}
+
+	private void constructBoards(){
+		for(final Board board : this.boards){
+			this.sink += FenUtilities.createGameFromFEN(FenUtilities.createFENFromGame(board)).getOccupancy();
+		}
+	}
+
+	private void calculateLegalMoves(){
+		for(final Board board : this.boards){
+			this.sink += calculateLegalMoves(board.getWhitePieces(), board) + calculateLegalMoves(board.getBlackPieces(), board);
+		}
+	}
+
+	private static int calculateLegalMoves(final Collection<Piece> pieces, final Board board){
+		int moveCount = 0;
+		for(final Piece piece : pieces){
+			moveCount += piece.calculateLegalMoves(board).size();
+		}
+		return moveCount;
+	}
+
+	private void executeMoves(){
+		for(final Move move : this.moves){
+			this.sink += move.execute().getOccupancy();
+		}
+	}
+
+	private long perft(final int depth){
+		long nodes = 0;
+		for(final Board board : this.boards){
+			nodes += Perft.perft(board, depth);
+		}
+		this.sink += nodes;
+		return nodes;
+	}
+
+	private void run(final String name, final long opsPerInvocation, final Runnable benchmark){
+		for(int i = 0; i < Warmup_Iterations; i++){
+			measure(benchmark);
+		}
+		final double[] results = new double[Measurement_Iterations];
+		double mean = 0;
+		for(int i = 0; i < Measurement_Iterations; i++){
+			final long[] measurement = measure(benchmark);
+			results[i] = (double) measurement[0] * opsPerInvocation * 1000000000L / measurement[1];
+			mean += results[i] / Measurement_Iterations;
+		}
+		double variance = 0;
+		for(final double result : results){
+			variance += (result - mean) * (result - mean) / Measurement_Iterations;
+		}
+		System.out.println(String.format("%-28s %,14.0f ops/sec  +- %,.0f", name, mean, Math.sqrt(variance)));
+	}
+
+	private static long[] measure(final Runnable benchmark){
+		final long start = System.nanoTime();
+		long invocations = 0;
+		long elapsed;
+		do{
+			benchmark.run();
+			invocations++;
+			elapsed = System.nanoTime() - start;
+		} while(elapsed < Iteration_Nanos);
+		return new long[]{invocations, elapsed};
+	}
+
+}
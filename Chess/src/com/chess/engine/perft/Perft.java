@@ -0,0 +1,67 @@
+package com.chess.engine.perft;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.MutableBoard;
+
+public class Perft {
+
+	private Perft(){
+		throw new RuntimeException("Not instantiable!!!");
+	}
+
+	public static long perft(final Board board, final int depth){
+		if(depth == 0){
+			return 1L;
+		}
+		final Collection<Move> legalMoves = board.currentPlayer().getLegalMoves();
+		if(depth == 1){
+			return legalMoves.size();
+		}
+		long nodes = 0;
+		for(final Move move : legalMoves){
+			nodes += perft(move.execute(), depth - 1);
+		}
+		return nodes;
+	}
+
+	public static long perft(final MutableBoard board, final int depth){
+		final MoveList[] moveBuffers = new MoveList[Math.max(depth, 1)];
+		for(int i = 0; i < moveBuffers.length; i++){
+			moveBuffers[i] = new MoveList();
+		}
+		return perft(board, depth, moveBuffers);
+	}
+
+	private static long perft(final MutableBoard board, final int depth, final MoveList[] moveBuffers){
+		if(depth == 0){
+			return 1L;
+		}
+		final MoveList moves = moveBuffers[depth - 1];
+		final int moveCount = board.generateLegalMoves(moves);
+		if(depth == 1){
+			return moveCount;
+		}
+		long nodes = 0;
+		for(int i = 0; i < moveCount; i++){
+			board.makeMove(moves.get(i));
+			nodes += perft(board, depth - 1, moveBuffers);
+			board.unmakeMove();
+		}
+		return nodes;
+	}
+
+	public static Map<String, Long> divide(final Board board, final int depth){
+		final Map<String, Long> divide = new TreeMap<>();
+		for(final Move move : board.currentPlayer().getLegalMoves()){
+			divide.put(move.toString(), perft(move.execute(), depth - 1));
+		}
+		return divide;
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.chess.engine.perft;
+
+import java.util.Map;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MutableBoard;
+import com.chess.pgn.FenUtilities;
+
+public class PerftSuite {
+
+	// reference positions and node counts from the Chess Programming Wiki perft results
+	static final String[] Reference_Positions = {
+		"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+		"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+		"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+		"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+		"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+		"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"
+	};
+
+	static final long[][] Reference_Counts = {
+		{20L, 400L, 8902L, 197281L, 4865609L},
+		{48L, 2039L, 97862L, 4085603L},
+		{14L, 191L, 2812L, 43238L, 674624L},
+		{6L, 264L, 9467L, 422333L},
+		{44L, 1486L, 62379L, 2103487L},
+		{46L, 2079L, 89890L, 3894594L}
+	};
+
+	private PerftSuite(){
+		throw new RuntimeException("Not instantiable!!!");
+	}
+
+	// usage: PerftSuite [maxDepth] [mutable] | PerftSuite divide <depth> <fen>
+	public static void main(final String[] args){
+		if(args.length >= 3 && args[0].equals("divide")){
+			divide(FenUtilities.createGameFromFEN(args[2]), Integer.parseInt(args[1]));
+			return;
+		}
+		final int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+		final boolean mutable = args.length > 1 && args[1].equals("mutable");
+		if(!runSuite(maxDepth, mutable)){
+			System.exit(1);
+		}
+	}
+
+	static boolean runSuite(final int maxDepth, final boolean mutable){
+		boolean passed = true;
+		long totalNodes = 0;
+		long totalNanos = 0;
+		for(int i = 0; i < Reference_Positions.length; i++){
+			final Board board = FenUtilities.createGameFromFEN(Reference_Positions[i]);
+			for(int depth = 1; depth <= Math.min(maxDepth, Reference_Counts[i].length); depth++){
+				final long start = System.nanoTime();
+				final long nodes = mutable ? Perft.perft(new MutableBoard(board), depth) : Perft.perft(board, depth);
+				final long elapsed = System.nanoTime() - start;
+				final long expected = Reference_Counts[i][depth - 1];
+				totalNodes += nodes;
+				totalNanos += elapsed;
+				System.out.println(String.format("%-6s position %d depth %d: %,d nodes (expected %,d) %,d nodes/sec",
+						nodes == expected ? "OK" : "FAIL", i + 1, depth, nodes, expected, nodesPerSecond(nodes, elapsed)));
+				passed &= nodes == expected;
+			}
+		}
+		System.out.println(String.format("%s: %,d nodes, %,d nodes/sec", passed ? "PASSED" : "FAILED",
+				totalNodes, nodesPerSecond(totalNodes, totalNanos)));
+		return passed;
+	}
+
+	private static void divide(final Board board, final int depth){
+		long total = 0;
+		for(final Map.Entry<String, Long> entry : Perft.divide(board, depth).entrySet()){
+			System.out.println(entry.getKey() + ": " + entry.getValue());
+			total += entry.getValue();
+		}
+		System.out.println("Nodes: " + total);
+	}
+
+	static long nodesPerSecond(final long nodes, final long nanos){
+		return nanos == 0 ? 0 : nodes * 1000000000L / nanos;
+	}
+
+}
@@ -5,18 +5,21 @@ import java.util.Collection;
 import java.util.List;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.AttackTables;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Move.MajorMove;
 import com.chess.engine.pieces.Piece.PieceType;
 import com.google.common.collect.ImmutableList;
 
 public class Pawn extends Piece {
 
-	private final static int[] Candidate_Move_Vector_Coordinates = {8, 16, 7, 9};
 	public Pawn(int piecePosition, Alliance pieceAlliance) {
-		super(PieceType.PAWN, piecePosition, pieceAlliance);
+		super(PieceType.PAWN, piecePosition, pieceAlliance, true);
+	}
+	
+	public Pawn(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+		super(PieceType.PAWN, piecePosition, pieceAlliance, isFirstMove);
 	}
 
 	@Override
@@ -26,43 +29,55 @@ public class Pawn extends Piece {
 	@Override
 	public Collection<Move> calculateLegalMoves(Board board) {
 		final List<Move> LegalMoves = new ArrayList<>();
-		for(final int currentCandidateOffset : Candidate_Move_Vector_Coordinates){
-			
-			int candidateDestinationCoordinate = this.piecePosition + (currentCandidateOffset * this.getPieceAllance().getDirection());
-			
-			if(!BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)){
-				continue;
-			}
-			
-			if(currentCandidateOffset == 8 && !board.getTile(candidateDestinationCoordinate).isTileOccupied()){
-				//More work to do here
-				LegalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
-			} else if(currentCandidateOffset == 16 && this.isFirstMove && 
-					(BoardUtils.Second_Row[this.piecePosition] && this.getPieceAllance().isBlack()) ||
-					(BoardUtils.Seventh_Row[this.piecePosition]) && this.getPieceAllance().isWhite()){
-				final int behindCandidateDestinationCoordinate = this.piecePosition + (this.pieceAlliance.getDirection() * 8);
-				if(!board.getTile(behindCandidateDestinationCoordinate).isTileOccupied() && 
-					!board.getTile(candidateDestinationCoordinate).isTileOccupied()){
-					LegalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
-				}
-			} else if(currentCandidateOffset == 7 &&
-					(BoardUtils.Eighth_Column[this.piecePosition] && this.pieceAlliance.isWhite()) ||
-					(BoardUtils.First_Column[this.piecePosition] && this.pieceAlliance.isBlack())){
-				if(board.getTile(candidateDestinationCoordinate).isTileOccupied()){
-					//TODO more to do here
-					LegalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
-				}
-			} else if(currentCandidateOffset == 9 &&
-					(BoardUtils.Eighth_Column[this.piecePosition] && this.pieceAlliance.isBlack()) ||
-					(BoardUtils.First_Column[this.piecePosition] && this.pieceAlliance.isWhite())){
-				LegalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
+		final int forwardOffset = this.pieceAlliance.getDirection() * BoardUtils.Num_Tiles_Per_Row;
+		final int candidateDestinationCoordinate = this.piecePosition + forwardOffset;
+		if(BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate) &&
+		   !board.getTile(candidateDestinationCoordinate).isTileOccupied()){
+			addPawnMove(LegalMoves, new Move.PawnMove(board, this, candidateDestinationCoordinate));
+			final int jumpDestinationCoordinate = candidateDestinationCoordinate + forwardOffset;
+			if(this.isFirstMove &&
+			   ((BoardUtils.Second_Row[this.piecePosition] && this.getPieceAllance().isBlack()) ||
+			   (BoardUtils.Seventh_Row[this.piecePosition] && this.getPieceAllance().isWhite())) &&
+			   !board.getTile(jumpDestinationCoordinate).isTileOccupied()){
+				LegalMoves.add(new Move.PawnJump(board, this, jumpDestinationCoordinate));
 			}
 		}
+		for(final int attackDestinationCoordinate : AttackTables.pawnAttackTargets(this.pieceAlliance, this.piecePosition)){
+			addPawnAttack(board, LegalMoves, attackDestinationCoordinate);
+		}
 		return ImmutableList.copyOf(LegalMoves);
 	}
+	
+	private void addPawnAttack(final Board board, final List<Move> legalMoves, final int candidateDestinationCoordinate){
+		if(board.getTile(candidateDestinationCoordinate).isTileOccupied()){
+			final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
+			if(this.pieceAlliance != pieceOnCandidate.getPieceAllance()){
+				addPawnMove(legalMoves, new Move.PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
+			}
+		} else{
+			final Pawn enPassantPawn = board.getEnPassantPawn();
+			if(enPassantPawn != null && enPassantPawn.getPieceAllance() != this.pieceAlliance &&
+			   enPassantPawn.getPiecePosition() == candidateDestinationCoordinate - (this.pieceAlliance.getDirection() * 8)){
+				legalMoves.add(new Move.PawnEnPassantAttackMove(board, this, candidateDestinationCoordinate, enPassantPawn));
+			}
+		}
+	}
+	
+	private void addPawnMove(final List<Move> legalMoves, final Move pawnMove){
+		if(this.pieceAlliance.isPawnPromotionSquare(pawnMove.getDestinationCoordinate())){
+			final int destination = pawnMove.getDestinationCoordinate();
+			legalMoves.add(new Move.PawnPromotion(pawnMove, PieceUtils.getMovedQueen(this.pieceAlliance, destination)));
+			legalMoves.add(new Move.PawnPromotion(pawnMove, PieceUtils.getMovedRook(this.pieceAlliance, destination)));
+			legalMoves.add(new Move.PawnPromotion(pawnMove, PieceUtils.getMovedBishop(this.pieceAlliance, destination)));
+			legalMoves.add(new Move.PawnPromotion(pawnMove, PieceUtils.getMovedKnight(this.pieceAlliance, destination)));
+		} else{
+			legalMoves.add(pawnMove);
+		}
+	}
+	
 	@Override
 	public Pawn movePiece(Move move) {
-		return new Pawn(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAllance());
+		return PieceUtils.getMovedPawn(move.getMovedPiece().getPieceAllance(), move.getDestinationCoordinate());
 	}
 
 }
@@ -1,10 +1,15 @@
 package com.chess.engine.pieces;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Board;
+import com.chess.engine.board.Tile;
+import com.google.common.collect.ImmutableList;
 public abstract class Piece {
 	
 	protected final PieceType pieceType;
@@ -13,11 +18,11 @@ public abstract class Piece {
 	protected final boolean isFirstMove;
 	private final int cacheHashCode;
 	
-	Piece(final PieceType pieceType, final int piecePosition, final Alliance pieceAlliance){
+	Piece(final PieceType pieceType, final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove){
 		this.pieceType = pieceType;
 		this.piecePosition = piecePosition;
 		this.pieceAlliance = pieceAlliance;
-		this.isFirstMove = false;
+		this.isFirstMove = isFirstMove;
 		this.cacheHashCode = computeHashCode();
 	}
 	
@@ -63,13 +68,33 @@ public abstract class Piece {
 		return pieceType;
 	}
 	
+	public static Piece createPiece(final PieceType pieceType, final int piecePosition,
+									final Alliance pieceAlliance, final boolean isFirstMove){
+		return PieceUtils.getPiece(pieceType, pieceAlliance, piecePosition, isFirstMove);
+	}
+	
+	// one move per set bit of the destination mask, squares held by our own pieces must already be cleared
+	protected Collection<Move> createMoves(final Board board, final long destinations){
+		final List<Move> legalMoves = new ArrayList<>(BitBoard.count(destinations));
+		for(long remaining = destinations; remaining != 0; remaining = BitBoard.clearFirst(remaining)){
+			final int destination = BitBoard.firstSquare(remaining);
+			final Tile destinationTile = board.getTile(destination);
+			if(!destinationTile.isTileOccupied()){
+				legalMoves.add(new Move.MajorMove(board, this, destination));
+			} else{
+				legalMoves.add(new Move.AttackMove(board, this, destination, destinationTile.getPiece()));
+			}
+		}
+		return ImmutableList.copyOf(legalMoves);
+	}
+	
 	public abstract Piece movePiece(Move move);									// Di chuyển quân cờ
 	public abstract Collection<Move> calculateLegalMoves(final Board board);	// Tính nước có thể đi được
 
 
 	public enum PieceType {	//Nhận dạng tên loại quân cờ
 		
-		PAWN("P") {
+		PAWN("P", 100) {
 			@Override
 			public boolean isKing() {
 				return false;
@@ -80,7 +105,7 @@ public abstract class Piece {
 				return false;
 			}
 		},
-		KNIGHT("N") {
+		KNIGHT("N", 300) {
 			@Override
 			public boolean isKing() {
 				return false;
@@ -91,7 +116,7 @@ public abstract class Piece {
 				return false;
 			}
 		},
-		BISHOP("B") {
+		BISHOP("B", 330) {
 			@Override
 			public boolean isKing() {
 				return false;
@@ -102,7 +127,7 @@ public abstract class Piece {
 				return false;
 			}
 		},
-		ROOK("R") {
+		ROOK("R", 500) {
 			@Override
 			public boolean isKing() {
 				return false;
@@ -113,7 +138,7 @@ public abstract class Piece {
 				return true;
 			}
 		},
-		QUEEN("Q") {
+		QUEEN("Q", 900) {
 			@Override
 			public boolean isKing() {
 				return false;
@@ -124,7 +149,7 @@ public abstract class Piece {
 				return false;
 			}
 		},
-		KING("K") {
+		KING("K", 10000) {
 			@Override
 			public boolean isKing() {
 				return true;
@@ -136,9 +161,15 @@ public abstract class Piece {
 			}
 		};
 		private String pieceName;
+		private final int pieceValue;
 		
-		PieceType(final String pieceName){
+		PieceType(final String pieceName, final int pieceValue){
 			this.pieceName = pieceName;
+			this.pieceValue = pieceValue;
+		}
+		
+		public int getPieceValue(){
+			return this.pieceValue;
 		}
 		
 		@Override
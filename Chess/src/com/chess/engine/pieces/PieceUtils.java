@@ -0,0 +1,81 @@
+package com.chess.engine.pieces;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece.PieceType;
+
+public final class PieceUtils {
+
+	// every (piece type, alliance, position, first move) combination, built once; pieces are immutable so they can be shared
+	private static final Piece[][][] All_Pieces = createAllPieces();
+
+	private PieceUtils(){
+		throw new RuntimeException("Not instantiable!!!");
+	}
+
+	public static Piece getPiece(final PieceType pieceType,
+								 final Alliance alliance,
+								 final int piecePosition,
+								 final boolean isFirstMove){
+		return All_Pieces[BitBoard.index(pieceType, alliance)][piecePosition][isFirstMove ? 1 : 0];
+	}
+
+	public static Pawn getMovedPawn(final Alliance alliance, final int destination){
+		return (Pawn) getPiece(PieceType.PAWN, alliance, destination, false);
+	}
+
+	public static Knight getMovedKnight(final Alliance alliance, final int destination){
+		return (Knight) getPiece(PieceType.KNIGHT, alliance, destination, false);
+	}
+
+	public static Bishop getMovedBishop(final Alliance alliance, final int destination){
+		return (Bishop) getPiece(PieceType.BISHOP, alliance, destination, false);
+	}
+
+	public static Rook getMovedRook(final Alliance alliance, final int destination){
+		return (Rook) getPiece(PieceType.ROOK, alliance, destination, false);
+	}
+
+	public static Queen getMovedQueen(final Alliance alliance, final int destination){
+		return (Queen) getPiece(PieceType.QUEEN, alliance, destination, false);
+	}
+
+	public static King getMovedKing(final Alliance alliance, final int destination){
+		return (King) getPiece(PieceType.KING, alliance, destination, false);
+	}
+
+	private static Piece[][][] createAllPieces(){
+		final Piece[][][] pieces = new Piece[BitBoard.Num_Piece_Bitboards][BoardUtils.Num_Tiles][2];
+		for(int pieceIndex = 0; pieceIndex < BitBoard.Num_Piece_Bitboards; pieceIndex++){
+			final PieceType pieceType = BitBoard.pieceTypeOf(pieceIndex);
+			final Alliance alliance = BitBoard.allianceOf(pieceIndex);
+			for(int tile = 0; tile < BoardUtils.Num_Tiles; tile++){
+				pieces[pieceIndex][tile][0] = allocatePiece(pieceType, tile, alliance, false);
+				pieces[pieceIndex][tile][1] = allocatePiece(pieceType, tile, alliance, true);
+			}
+		}
+		return pieces;
+	}
+
+	private static Piece allocatePiece(final PieceType pieceType, final int piecePosition,
+									   final Alliance pieceAlliance, final boolean isFirstMove){
+		switch(pieceType){
+			case PAWN:
+				return new Pawn(piecePosition, pieceAlliance, isFirstMove);
+			case KNIGHT:
+				return new Knight(piecePosition, pieceAlliance, isFirstMove);
+			case BISHOP:
+				return new Bishop(piecePosition, pieceAlliance, isFirstMove);
+			case ROOK:
+				return new Rook(piecePosition, pieceAlliance, isFirstMove);
+			case QUEEN:
+				return new Queen(piecePosition, pieceAlliance, isFirstMove);
+			case KING:
+				return new King(piecePosition, pieceAlliance, isFirstMove);
+			default:
+				throw new RuntimeException("Unknown piece type " + pieceType);
+		}
+	}
+
+}
@@ -14,9 +14,8 @@ import com.google.common.collect.ImmutableList;
 
 public class BlackPlayer extends Player{
 
-	public BlackPlayer(final Board board, final Collection<Move> blackStandardLegalMoves,
-			final Collection<Move> whiteStandardLegalMoves) {
-		super(board,blackStandardLegalMoves,whiteStandardLegalMoves);
+	public BlackPlayer(final Board board) {
+		super(board);
 	}
 
 	@Override
@@ -36,8 +35,7 @@ public class BlackPlayer extends Player{
 	}
 
 	@Override
-	protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals, 
-													final Collection<Move> opponentsLegals) {
+	protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals) {
 		final List<Move> kingCastles = new ArrayList<>();
 		if(this.playerKing.isFirstMove() && !this.isInCheck()){
 			//BLACK KING side castle
@@ -45,20 +43,22 @@ public class BlackPlayer extends Player{
 				final Tile rookTile = this.board.getTile(7);
 				
 				if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()){
-					if(Player.calculateAttackOnTile(5, opponentsLegals).isEmpty() &&
-					   Player.calculateAttackOnTile(6, opponentsLegals).isEmpty() &&
-					   rookTile.getPiece().getPieceType().isRook())
-					//TODO ADD A CASTLEMOVE
-					kingCastles.add(new Move.KingSideCastleMove(this.board, this.playerKing, 6, 
-									(Rook)rookTile.getPiece(), rookTile.getTileCoordinate(), 5));
+					if(!this.board.isSquareAttacked(5, getOpponentAlliance()) &&
+					   !this.board.isSquareAttacked(6, getOpponentAlliance()) &&
+					   rookTile.getPiece().getPieceType().isRook()){
+						kingCastles.add(new Move.KingSideCastleMove(this.board, this.playerKing, 6, 
+										(Rook)rookTile.getPiece(), rookTile.getTileCoordinate(), 5));
+					}
 				}
 			}
 			if(!this.board.getTile(1).isTileOccupied() &&
 			   !this.board.getTile(2).isTileOccupied() &&
 			   !this.board.getTile(3).isTileOccupied()){
 				final Tile rookTile = this.board.getTile(0);
-				if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()){
-					//TODO add castle move
+				if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() &&
+				   !this.board.isSquareAttacked(2, getOpponentAlliance()) &&
+				   !this.board.isSquareAttacked(3, getOpponentAlliance()) &&
+				   rookTile.getPiece().getPieceType().isRook()){
 					kingCastles.add(new Move.QueenSideCastleMove(this.board, this.playerKing, 2, 
 									(Rook)rookTile.getPiece(), rookTile.getTileCoordinate(), 3));
 				}
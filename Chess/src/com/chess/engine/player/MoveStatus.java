@@ -3,13 +3,13 @@ package com.chess.engine.player;
 public enum MoveStatus {
 	DONE {
 		@Override
-		boolean isDone() {
+		public boolean isDone() {
 			return true;
 		}
 	},
 	ILLEGAL_MOVE{
 		@Override
-		boolean isDone() {
+		public boolean isDone() {
 			return false;
 		}
 		
@@ -17,10 +17,10 @@ public enum MoveStatus {
 	LEAVES_PLAYER_IN_CHECK{
 
 		@Override
-		boolean isDone() {
+		public boolean isDone() {
 			return false;
 		}
 		
 	};
-	abstract boolean isDone();
+	public abstract boolean isDone();
 }
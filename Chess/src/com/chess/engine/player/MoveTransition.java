@@ -19,4 +19,12 @@ public class MoveTransition {
 		return this.moveStatus;
 	}
 	
+	public Board getTransitionBoard(){
+		return this.trasitionBoard;
+	}
+	
+	public Move getMove(){
+		return this.move;
+	}
+	
 }
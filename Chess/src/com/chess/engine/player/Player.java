@@ -4,13 +4,17 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
-import javax.management.RuntimeErrorException;
-
 import com.chess.engine.Alliance;
+import com.chess.engine.board.AttackTables;
+import com.chess.engine.board.BitBoard;
 import com.chess.engine.board.Board;
+import com.chess.engine.board.MagicBitboards;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveIndex;
+import com.chess.engine.board.Move.PawnEnPassantAttackMove;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
@@ -18,37 +22,87 @@ public abstract class Player {
 	
 	protected final Board board;
 	protected final King playerKing;
-	protected final Collection<Move> legalMoves;
-	private final boolean isInCheck;
+	// computed on first use and published through the volatile fields, see Board.getStandardLegalMoves
+	private volatile Collection<Move> legalMoves;
+	private volatile MoveIndex moveIndex;
+	private volatile Boolean isInCheck;
 	
-	Player(final Board board, final Collection<Move> legalMoves, final Collection<Move> opponentMoves){
+	Player(final Board board){
 		this.board = board;
 		this.playerKing = establishKing();
-		this.isInCheck = !Player.calculateAttackOnTile(this.playerKing.getPiecePosition(), opponentMoves).isEmpty();
-		this.legalMoves = ImmutableList.copyOf(legalMoves);
 	}
 	
 	public King getPlayerKing(){
 		return this.playerKing;
 	}
 	
+	// strictly legal: every move returned here can be executed without leaving the king in check
 	public Collection<Move> getLegalMoves(){
-		return this.legalMoves;
+		Collection<Move> moves = this.legalMoves;
+		if(moves == null){
+			final Collection<Move> standardLegalMoves = this.board.getStandardLegalMoves(getAlliance());
+			this.legalMoves = moves = ImmutableList.copyOf(Iterables.concat(filterLegalMoves(standardLegalMoves),
+					calculateKingCastles(standardLegalMoves)));
+		}
+		return moves;
 	}
 	
+	// decides legality from the checkers and pinned pieces of the current position, without executing anything
+	private Collection<Move> filterLegalMoves(final Collection<Move> standardLegalMoves){
+		final Alliance opponent = getOpponentAlliance();
+		final int kingTile = this.playerKing.getPiecePosition();
+		final long occupancy = this.board.getOccupancy();
+		final long checkers = this.board.getAttackers(kingTile, opponent, occupancy);
+		final long pinned = calculatePinnedPieces(kingTile, opponent, occupancy);
+		long evasionMask = BitBoard.Full;
+		if(checkers != 0){
+			final int checker = BitBoard.firstSquare(checkers);
+			evasionMask = BitBoard.clearFirst(checkers) != 0 ? BitBoard.Empty :
+				checkers | AttackTables.between(kingTile, checker);
+		}
+		final List<Move> legalMoves = new ArrayList<>(standardLegalMoves.size());
+		for(final Move move : standardLegalMoves){
+			final int from = move.getCurrentCoordinate();
+			final int destination = move.getDestinationCoordinate();
+			if(from == kingTile){
+				if(!this.board.isSquareAttacked(destination, opponent, occupancy ^ BitBoard.squareMask(kingTile))){
+					legalMoves.add(move);
+				}
+			} else if(move instanceof PawnEnPassantAttackMove){
+				if(isLegalEnPassant(move, kingTile, opponent, occupancy)){
+					legalMoves.add(move);
+				}
+			} else if(BitBoard.isSet(evasionMask, destination) &&
+					  (!BitBoard.isSet(pinned, from) || BitBoard.isSet(AttackTables.line(kingTile, from), destination))){
+				legalMoves.add(move);
+			}
+		}
+		return legalMoves;
+	}
 	
-	protected static Collection<Move> calculateAttackOnTile(final int tile, final Collection<Move> moves) {
-		final List<Move> attackMoves = new ArrayList<>();
-		for(final Move move : moves){
-			if(tile == move.getDestinationCoordinate()){
-				attackMoves.add(move);
+	// our pieces that are the only blocker between the king and an enemy slider on the same line
+	private long calculatePinnedPieces(final int kingTile, final Alliance opponent, final long occupancy){
+		final long queens = this.board.getPieceBitboard(PieceType.QUEEN, opponent);
+		final long snipers = (MagicBitboards.rookAttacks(kingTile, BitBoard.Empty) & (this.board.getPieceBitboard(PieceType.ROOK, opponent) | queens)) |
+							 (MagicBitboards.bishopAttacks(kingTile, BitBoard.Empty) & (this.board.getPieceBitboard(PieceType.BISHOP, opponent) | queens));
+		long pinned = 0;
+		for(long remaining = snipers; remaining != 0; remaining = BitBoard.clearFirst(remaining)){
+			final long blockers = AttackTables.between(kingTile, BitBoard.firstSquare(remaining)) & occupancy;
+			if(blockers != 0 && BitBoard.clearFirst(blockers) == 0){
+				pinned |= blockers & this.board.getOccupancy(getAlliance());
 			}
 		}
-		return ImmutableList.copyOf(attackMoves);
+		return pinned;
 	}
-
-
-
+	
+	// en passant clears two squares on one row at once, so it is checked on the position after the capture
+	private boolean isLegalEnPassant(final Move move, final int kingTile, final Alliance opponent, final long occupancy){
+		final long capturedPawn = BitBoard.squareMask(move.getAttackPiece().getPiecePosition());
+		final long occupancyAfter = (occupancy ^ BitBoard.squareMask(move.getCurrentCoordinate()) ^ capturedPawn) |
+									BitBoard.squareMask(move.getDestinationCoordinate());
+		return (this.board.getAttackers(kingTile, opponent, occupancyAfter) & ~capturedPawn) == 0;
+	}
+	
 	private King establishKing(){
 		for(final Piece piece : getActivePieces()){
 			if(piece.getPieceType().isKing()){
@@ -58,30 +112,40 @@ public abstract class Player {
 		throw new RuntimeException("Not a valid board!!!!!");
 	}
 	
+	public MoveIndex getMoveIndex(){
+		MoveIndex index = this.moveIndex;
+		if(index == null){
+			this.moveIndex = index = new MoveIndex(getLegalMoves());
+		}
+		return index;
+	}
+	
 	public boolean isMoveLegal(final Move move){
-		return this.legalMoves.contains(move);
+		return getMoveIndex().contains(move);
 	}
 	
 	public boolean isInCheck(){
-		return this.isInCheck;
+		Boolean inCheck = this.isInCheck;
+		if(inCheck == null){
+			this.isInCheck = inCheck = this.board.isSquareAttacked(this.playerKing.getPiecePosition(), getOpponentAlliance());
+		}
+		return inCheck;
+	}
+	
+	protected Alliance getOpponentAlliance(){
+		return getAlliance().isWhite() ? Alliance.Black : Alliance.White;
 	}
 
 	public boolean isInCheckMate(){
-		return this.isInCheck && !hasEscapeMoves();
+		return isInCheck() && !hasEscapeMoves();
 	}
 	
 	protected boolean hasEscapeMoves() {
-		for(final Move move : this.legalMoves){
-			final MoveTransition transition = makeMove(move);
-			if(transition.getMoveStatus().isDone()){
-				return true;
-			}
-		}
-		return false;
+		return !getLegalMoves().isEmpty();
 	}
 
 	public boolean isInStaleMate(){
-		return !this.isInCheck && !hasEscapeMoves();
+		return !isInCheck() && !hasEscapeMoves();
 	}
 
 	//TODO implement these below!!!
@@ -90,16 +154,15 @@ public abstract class Player {
 	}
 	
 	public MoveTransition makeMove(final Move move){
-		if(!isMoveLegal(move)){
-			return new MoveTransition(this.board, move, MoveStatus.ILLEGAL_MOVE);
-		}
-		final Board transitionBoard = move.execute();
-		final Collection<Move> kingAttacks = Player.calculateAttackOnTile(transitionBoard.currentPlayer().getOpponent().getPlayerKing().getPiecePosition(),
-				transitionBoard.currentPlayer().getLegalMoves());
-		if(!kingAttacks.isEmpty()){
-			return new MoveTransition(this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
+		// execute drops the moved piece by identity, so only the board's own move object may be executed
+		final Move legalMove = getMoveIndex().find(move);
+		if(legalMove == Move.NULL_MOVE){
+			// pseudo-legal moves the filter dropped are exactly the ones that expose the king
+			final MoveStatus moveStatus = this.board.getStandardLegalMoves(getAlliance()).contains(move) ?
+				MoveStatus.LEAVES_PLAYER_IN_CHECK : MoveStatus.ILLEGAL_MOVE;
+			return new MoveTransition(this.board, move, moveStatus);
 		}
-		return new MoveTransition(transitionBoard, move, MoveStatus.DONE);
+		return new MoveTransition(legalMove.execute(), legalMove, MoveStatus.DONE);
 	}
 	
 	public abstract Collection<Piece> getActivePieces();
@@ -108,6 +171,6 @@ public abstract class Player {
 	
 	public abstract Player getOpponent();
 
-	protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals, Collection<Move> opponentsLegals);
+	protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals);
 	
 }
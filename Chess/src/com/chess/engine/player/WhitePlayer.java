@@ -14,10 +14,8 @@ import com.google.common.collect.ImmutableList;
 
 public class WhitePlayer extends Player {
 
-	public WhitePlayer(final Board board, 
-					   final Collection<Move> whiteStandardLegalMoves,
-					   final Collection<Move> blackStandardLegalMoves) {
-		super(board,whiteStandardLegalMoves,blackStandardLegalMoves);
+	public WhitePlayer(final Board board) {
+		super(board);
 	}
 
 	@Override
@@ -36,8 +34,7 @@ public class WhitePlayer extends Player {
 	}
 
 	@Override
-	protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals, 
-													final Collection<Move> opponentsLegals) {
+	protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals) {
 		final List<Move> kingCastles = new ArrayList<>();
 		if(this.playerKing.isFirstMove() && !this.isInCheck()){
 			//WHITE KING side castle
@@ -45,19 +42,22 @@ public class WhitePlayer extends Player {
 				final Tile rookTile = this.board.getTile(63);
 				
 				if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()){
-					if(Player.calculateAttackOnTile(61, opponentsLegals).isEmpty() &&
-					   Player.calculateAttackOnTile(62, opponentsLegals).isEmpty() &&
-					   rookTile.getPiece().getPieceType().isRook())
-					kingCastles.add(new Move.KingSideCastleMove(this.board, this.playerKing, 62, 
-																(Rook)rookTile.getPiece(), rookTile.getTileCoordinate(), 61));
+					if(!this.board.isSquareAttacked(61, getOpponentAlliance()) &&
+					   !this.board.isSquareAttacked(62, getOpponentAlliance()) &&
+					   rookTile.getPiece().getPieceType().isRook()){
+						kingCastles.add(new Move.KingSideCastleMove(this.board, this.playerKing, 62, 
+																	(Rook)rookTile.getPiece(), rookTile.getTileCoordinate(), 61));
+					}
 				}
 			}
 			if(!this.board.getTile(59).isTileOccupied() &&
 			   !this.board.getTile(58).isTileOccupied() &&
-			   !this.board.getTile(59).isTileOccupied()){
+			   !this.board.getTile(57).isTileOccupied()){
 				final Tile rookTile = this.board.getTile(56);
-				if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()){
-					//TODO add castle move
+				if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() &&
+				   !this.board.isSquareAttacked(58, getOpponentAlliance()) &&
+				   !this.board.isSquareAttacked(59, getOpponentAlliance()) &&
+				   rookTile.getPiece().getPieceType().isRook()){
 					kingCastles.add(new Move.QueenSideCastleMove(this.board, this.playerKing, 58, 
 																(Rook)rookTile.getPiece(), rookTile.getTileCoordinate(), 59));
 				}
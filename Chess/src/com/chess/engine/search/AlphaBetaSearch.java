@@ -0,0 +1,410 @@
+package com.chess.engine.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.MutableBoard;
+import com.google.common.collect.ImmutableList;
+
+// iterative deepening negamax over a mutable board, making and unmaking moves in place; only the principal
+// variation of each completed iteration is turned back into moves on the immutable board
+public class AlphaBetaSearch implements MoveStrategy {
+
+	public static final int Infinity = 32000;
+	public static final int Mate = 31000;
+	public static final int Mate_Bound = Mate - SearchLimits.Max_Depth;
+
+	private static final int Node_Check_Interval = 1024;
+
+	private final BoardEvaluator evaluator;
+	private final TranspositionTable transpositionTable;
+	private SearchLimits limits;
+	private SearchListener listener;
+	private final MoveOrdering moveOrdering = new MoveOrdering();
+	private final StaticExchange staticExchange = new StaticExchange();
+
+	private final MoveList[] moveLists = new MoveList[SearchLimits.Max_Depth + 1];
+	private final int[][] pvTable = new int[SearchLimits.Max_Depth + 1][SearchLimits.Max_Depth + 1];
+	private final int[] pvLength = new int[SearchLimits.Max_Depth + 1];
+	private final long[] pathHashes = new long[SearchLimits.Max_Depth + 1];
+	// the game's positions before the root since its last capture or pawn move, oldest first
+	private long[] gameHashes = new long[0];
+
+	private final AtomicBoolean stopSignal;
+	// nodes of every searcher working on the same search, which the node limit applies to. each adds its own count
+	// every Node_Check_Interval nodes, so other threads read a total at most that far behind per searcher
+	private final AtomicLong sharedNodes;
+	private final boolean ownsSharedState;
+	private final int startDepth;
+	private boolean aborted;
+	private boolean quiescenceChecks;
+	private long deadline;
+	private long nodes;
+	private long publishedNodes;
+
+	private Move bestMove;
+	private int bestScore;
+	private int completedDepth;
+	private List<Move> principalVariation;
+
+	public AlphaBetaSearch(final BoardEvaluator evaluator,
+						   final TranspositionTable transpositionTable,
+						   final SearchLimits limits){
+		this(evaluator, transpositionTable, limits, new AtomicBoolean());
+	}
+
+	// the search aborts once the signal is set; whoever holds the signal clears it before starting the next search
+	public AlphaBetaSearch(final BoardEvaluator evaluator,
+						   final TranspositionTable transpositionTable,
+						   final SearchLimits limits,
+						   final AtomicBoolean stopSignal){
+		this(evaluator, transpositionTable, limits, stopSignal, new AtomicLong(), true, 1);
+	}
+
+	// parallel searchers share one transposition table and node count, which their owner resets before starting them
+	AlphaBetaSearch(final BoardEvaluator evaluator,
+					final TranspositionTable transpositionTable,
+					final SearchLimits limits,
+					final AtomicBoolean stopSignal,
+					final AtomicLong sharedNodes,
+					final boolean ownsSharedState,
+					final int startDepth){
+		this.evaluator = evaluator;
+		this.transpositionTable = transpositionTable;
+		this.limits = limits;
+		this.stopSignal = stopSignal;
+		this.sharedNodes = sharedNodes;
+		this.ownsSharedState = ownsSharedState;
+		this.startDepth = startDepth;
+		this.principalVariation = ImmutableList.of();
+		for(int ply = 0; ply < this.moveLists.length; ply++){
+			this.moveLists[ply] = new MoveList(MoveOrdering.Max_Moves);
+		}
+	}
+
+	@Override
+	public Move execute(final Board board){
+		if(this.ownsSharedState){
+			this.transpositionTable.newSearch();
+			this.sharedNodes.set(0);
+		}
+		this.moveOrdering.newSearch();
+		this.aborted = false;
+		this.nodes = 0;
+		this.publishedNodes = 0;
+		this.completedDepth = 0;
+		this.bestScore = 0;
+		this.principalVariation = ImmutableList.of();
+		this.deadline = calculateDeadline(this.limits.getMaxTimeMillis());
+
+		final MutableBoard position = new MutableBoard(board);
+		final MoveList rootMoves = new MoveList(MoveOrdering.Max_Moves);
+		if(position.generateLegalMoves(rootMoves) == 0){
+			this.bestMove = Move.NULL_MOVE;
+			return this.bestMove;
+		}
+		this.bestMove = Move.MoveFactory.createMove(board, rootMoves.get(0));
+		for(int depth = Math.min(this.startDepth, this.limits.getMaxDepth()); depth <= this.limits.getMaxDepth(); depth++){
+			final int score = searchRoot(position, rootMoves, depth);
+			if(this.aborted){
+				break;
+			}
+			this.completedDepth = depth;
+			this.bestScore = score;
+			this.principalVariation = toMoves(board, this.pvTable[0], this.pvLength[0]);
+			this.bestMove = this.principalVariation.get(0);
+			// the best move is searched first in the next iteration, the others keep their order
+			for(int i = indexOf(rootMoves, this.pvTable[0][0]); i > 0; i--){
+				rootMoves.swap(i, i - 1);
+			}
+			publishNodes();
+			if(this.listener != null){
+				this.listener.iterationCompleted(depth, score, this.nodes, this.principalVariation);
+			}
+			if(Math.abs(score) >= Mate_Bound && Mate - Math.abs(score) <= depth){
+				break;
+			}
+		}
+		publishNodes();
+		return this.bestMove;
+	}
+
+	// the limits and the listener are set between searches
+	public void setLimits(final SearchLimits limits){
+		this.limits = limits;
+	}
+
+	public void setSearchListener(final SearchListener listener){
+		this.listener = listener;
+	}
+
+	// zobrist keys of the positions played before the root, oldest first; set between searches
+	public void setGameHistory(final long[] gameHashes){
+		this.gameHashes = gameHashes;
+	}
+
+	// also search quiet checking moves on the first quiescence ply; set between searches
+	public void setQuiescenceChecks(final boolean quiescenceChecks){
+		this.quiescenceChecks = quiescenceChecks;
+	}
+
+	public Move getBestMove(){
+		return this.bestMove;
+	}
+
+	public int getBestScore(){
+		return this.bestScore;
+	}
+
+	public int getCompletedDepth(){
+		return this.completedDepth;
+	}
+
+	// this searcher's own count, read on its thread or once execute has returned
+	public long getNodes(){
+		return this.nodes;
+	}
+
+	public List<Move> getPrincipalVariation(){
+		return this.principalVariation;
+	}
+
+	private int searchRoot(final MutableBoard board, final MoveList rootMoves, final int depth){
+		int alpha = -Infinity;
+		this.pvLength[0] = 0;
+		this.pathHashes[0] = board.getZobristHash();
+		for(int i = 0; i < rootMoves.size(); i++){
+			final int move = rootMoves.get(i);
+			board.makeMove(move);
+			final int score = -negamax(board, depth - 1, -Infinity, -alpha, 1);
+			board.unmakeMove();
+			if(this.aborted){
+				return 0;
+			}
+			if(score > alpha){
+				alpha = score;
+				updatePrincipalVariation(0, move);
+			}
+		}
+		return alpha;
+	}
+
+	// every move made below is unmade again before returning, also when the search is aborted
+	private int negamax(final MutableBoard board, final int depth, int alpha, final int beta, final int ply){
+		this.pvLength[ply] = ply;
+		if(++this.nodes % Node_Check_Interval == 0 || this.stopSignal.get()){
+			checkLimits();
+		}
+		if(this.aborted){
+			return 0;
+		}
+		final long zobristHash = board.getZobristHash();
+		if(isRepetition(zobristHash, ply)){
+			return 0;
+		}
+		this.pathHashes[ply] = zobristHash;
+		if(depth <= 0){
+			return quiescence(board, alpha, beta, ply, 0);
+		}
+		if(ply >= SearchLimits.Max_Depth){
+			return evaluate(board, depth);
+		}
+
+		final long ttData = this.transpositionTable.probe(zobristHash);
+		int ttMove = 0;
+		if(ttData != TranspositionTable.Miss){
+			ttMove = TranspositionTable.move(ttData);
+			if(TranspositionTable.depth(ttData) >= depth){
+				final int ttScore = scoreFromTable(TranspositionTable.score(ttData), ply);
+				final int bound = TranspositionTable.bound(ttData);
+				if(bound == TranspositionTable.Bound_Exact ||
+				  (bound == TranspositionTable.Bound_Lower && ttScore >= beta) ||
+				  (bound == TranspositionTable.Bound_Upper && ttScore <= alpha)){
+					return ttScore;
+				}
+			}
+		}
+
+		final int originalAlpha = alpha;
+		int bestScore = -Infinity;
+		int bestMove = MoveEncoding.None;
+		final MoveList legalMoves = this.moveLists[ply];
+		board.generateLegalMoves(legalMoves);
+		final int moveCount = this.moveOrdering.orderMoves(legalMoves, ttMove, ply);
+		for(int i = 0; i < moveCount; i++){
+			final int move = this.moveOrdering.getMove(ply, i);
+			board.makeMove(move);
+			final int score = -negamax(board, depth - 1, -beta, -alpha, ply + 1);
+			board.unmakeMove();
+			if(this.aborted){
+				return 0;
+			}
+			if(score > bestScore){
+				bestScore = score;
+				bestMove = move;
+				if(score > alpha){
+					alpha = score;
+					updatePrincipalVariation(ply, move);
+					if(alpha >= beta){
+						this.moveOrdering.updateCutoff(move, depth, ply);
+						break;
+					}
+				}
+			}
+		}
+		if(moveCount == 0){
+			return board.isInCheck() ? -Mate + ply : 0;
+		}
+		final int bound = bestScore >= beta ? TranspositionTable.Bound_Lower :
+						  bestScore > originalAlpha ? TranspositionTable.Bound_Exact : TranspositionTable.Bound_Upper;
+		this.transpositionTable.store(zobristHash, MoveEncoding.toShort(bestMove), scoreToTable(bestScore, ply), depth, bound);
+		return bestScore;
+	}
+
+	// captures and promotions beyond the horizon until the position is quiet, skipping those that lose material by
+	// static exchange. in check every evasion is searched; with quiescence checks, so are the first ply's checking moves
+	private int quiescence(final MutableBoard board, int alpha, final int beta, final int ply, final int quiescencePly){
+		this.pvLength[ply] = ply;
+		if(++this.nodes % Node_Check_Interval == 0 || this.stopSignal.get()){
+			checkLimits();
+		}
+		if(this.aborted){
+			return 0;
+		}
+		if(ply >= SearchLimits.Max_Depth){
+			return evaluate(board, 0);
+		}
+		final boolean inCheck = board.isInCheck();
+		int bestScore = -Infinity;
+		if(!inCheck){
+			bestScore = evaluate(board, 0);
+			if(bestScore >= beta){
+				return bestScore;
+			}
+			alpha = Math.max(alpha, bestScore);
+		}
+		final boolean searchChecks = this.quiescenceChecks && quiescencePly == 0 && !inCheck;
+		final MoveList legalMoves = this.moveLists[ply];
+		board.generateLegalMoves(legalMoves);
+		final int moveCount = this.moveOrdering.orderMoves(legalMoves, 0, ply);
+		for(int i = 0; i < moveCount; i++){
+			final int move = this.moveOrdering.getMove(ply, i);
+			final boolean tactical = MoveOrdering.isTactical(move);
+			if(!inCheck){
+				if(tactical){
+					if(this.staticExchange.isLosing(board, move)){
+						continue;
+					}
+				} else if(!searchChecks){
+					// tactical moves sort first, the rest are quiet
+					break;
+				}
+			}
+			board.makeMove(move);
+			if(!inCheck && !tactical && !board.isInCheck()){
+				board.unmakeMove();
+				continue;
+			}
+			final int score = -quiescence(board, -beta, -alpha, ply + 1, quiescencePly + 1);
+			board.unmakeMove();
+			if(this.aborted){
+				return 0;
+			}
+			if(score > bestScore){
+				bestScore = score;
+				if(score > alpha){
+					alpha = score;
+					if(alpha >= beta){
+						break;
+					}
+				}
+			}
+		}
+		if(inCheck && moveCount == 0){
+			return -Mate + ply;
+		}
+		return bestScore;
+	}
+
+	private int evaluate(final MutableBoard board, final int depth){
+		final int score = this.evaluator.evaluate(board, depth);
+		return board.getMoveMaker().isWhite() ? score : -score;
+	}
+
+	private boolean isRepetition(final long zobristHash, final int ply){
+		for(int i = ply - 4; i >= 0; i -= 2){
+			if(this.pathHashes[i] == zobristHash){
+				return true;
+			}
+		}
+		// then the game before the root, at the plies with the same side to move
+		for(int i = this.gameHashes.length - 2 + (ply & 1); i >= 0; i -= 2){
+			if(this.gameHashes[i] == zobristHash){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void updatePrincipalVariation(final int ply, final int move){
+		this.pvTable[ply][ply] = move;
+		final int childLength = Math.max(this.pvLength[ply + 1], ply + 1);
+		for(int i = ply + 1; i < childLength; i++){
+			this.pvTable[ply][i] = this.pvTable[ply + 1][i];
+		}
+		this.pvLength[ply] = childLength;
+	}
+
+	private void checkLimits(){
+		publishNodes();
+		if(this.stopSignal.get() || this.sharedNodes.get() >= this.limits.getMaxNodes() || System.nanoTime() - this.deadline > 0){
+			this.aborted = true;
+		}
+	}
+
+	private void publishNodes(){
+		this.sharedNodes.addAndGet(this.nodes - this.publishedNodes);
+		this.publishedNodes = this.nodes;
+	}
+
+	private static long calculateDeadline(final long maxTimeMillis){
+		final long maxNanos = maxTimeMillis >= Long.MAX_VALUE / 1000000L ? Long.MAX_VALUE / 2 : maxTimeMillis * 1000000L;
+		return System.nanoTime() + maxNanos;
+	}
+
+	private static int scoreToTable(final int score, final int ply){
+		return score >= Mate_Bound ? score + ply : score <= -Mate_Bound ? score - ply : score;
+	}
+
+	private static int scoreFromTable(final int score, final int ply){
+		return score >= Mate_Bound ? score - ply : score <= -Mate_Bound ? score + ply : score;
+	}
+
+	// replays the moves on the immutable board they were searched from
+	private static List<Move> toMoves(final Board board, final int[] moves, final int length){
+		final List<Move> resolved = new ArrayList<>(length);
+		Board current = board;
+		for(int i = 0; i < length; i++){
+			final Move move = Move.MoveFactory.createMove(current, moves[i]);
+			resolved.add(move);
+			current = move.execute();
+		}
+		return ImmutableList.copyOf(resolved);
+	}
+
+	private static int indexOf(final MoveList moves, final int move){
+		for(int i = 0; i < moves.size(); i++){
+			if(moves.get(i) == move){
+				return i;
+			}
+		}
+		return -1;
+	}
+
+}
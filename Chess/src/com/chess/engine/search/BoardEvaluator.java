@@ -0,0 +1,14 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MutableBoard;
+
+public interface BoardEvaluator {
+
+	// score in centipawns from white's point of view
+	int evaluate(Board board, int depth);
+
+	// the same score for the board the search makes and unmakes its moves on
+	int evaluate(MutableBoard board, int depth);
+
+}
@@ -0,0 +1,32 @@
+package com.chess.engine.search;
+
+import java.util.Random;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.pgn.PolyglotBook;
+
+// plays from the opening book while the position is in it and only searches once it is left
+public class BookMoveStrategy implements MoveStrategy {
+
+	private final PolyglotBook book;
+	private final MoveStrategy search;
+	private final Random random;
+
+	public BookMoveStrategy(final PolyglotBook book, final MoveStrategy search){
+		this(book, search, new Random());
+	}
+
+	public BookMoveStrategy(final PolyglotBook book, final MoveStrategy search, final Random random){
+		this.book = book;
+		this.search = search;
+		this.random = random;
+	}
+
+	@Override
+	public Move execute(final Board board){
+		final Move bookMove = this.book.selectMove(board, this.random);
+		return bookMove != Move.NULL_MOVE ? bookMove : this.search.execute(board);
+	}
+
+}
@@ -0,0 +1,129 @@
+package com.chess.engine.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+
+// the main search runs on the caller's thread and answers to the caller's stop signal; the helpers only fill the shared
+// transposition table and are stopped through their own signal once the main search returns
+public class LazySmpSearch implements MoveStrategy {
+
+	private final TranspositionTable transpositionTable;
+	// every thread's nodes, which the node limit applies to
+	private final AtomicLong nodes = new AtomicLong();
+	private final AtomicBoolean helperStopSignal;
+	private final AlphaBetaSearch mainSearch;
+	private final List<AlphaBetaSearch> helperSearches;
+	private final ExecutorService helperPool;
+
+	public LazySmpSearch(final BoardEvaluator evaluator,
+						 final TranspositionTable transpositionTable,
+						 final SearchLimits limits,
+						 final int threadCount){
+		this(evaluator, transpositionTable, limits, threadCount, new AtomicBoolean());
+	}
+
+	// whoever holds the stop signal clears it before starting the next search
+	public LazySmpSearch(final BoardEvaluator evaluator,
+						 final TranspositionTable transpositionTable,
+						 final SearchLimits limits,
+						 final int threadCount,
+						 final AtomicBoolean stopSignal){
+		if(threadCount < 1){
+			throw new IllegalArgumentException("Thread count must be positive: " + threadCount);
+		}
+		this.transpositionTable = transpositionTable;
+		this.helperStopSignal = new AtomicBoolean();
+		this.mainSearch = new AlphaBetaSearch(evaluator, transpositionTable, limits, stopSignal, this.nodes, false, 1);
+		this.helperSearches = new ArrayList<>();
+		for(int i = 1; i < threadCount; i++){
+			// odd helpers start one iteration ahead so the threads spread over neighbouring depths
+			this.helperSearches.add(new AlphaBetaSearch(evaluator, transpositionTable, limits, this.helperStopSignal, this.nodes, false, 1 + (i % 2)));
+		}
+		this.helperPool = this.helperSearches.isEmpty() ? null : Executors.newFixedThreadPool(this.helperSearches.size(), runnable -> {
+			final Thread thread = new Thread(runnable, "lazy-smp-helper");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@Override
+	public Move execute(final Board board){
+		this.helperStopSignal.set(false);
+		this.transpositionTable.newSearch();
+		this.nodes.set(0);
+		final List<Future<?>> helpers = new ArrayList<>();
+		for(final AlphaBetaSearch helperSearch : this.helperSearches){
+			helpers.add(this.helperPool.submit(() -> helperSearch.execute(board)));
+		}
+		final Move bestMove = this.mainSearch.execute(board);
+		this.helperStopSignal.set(true);
+		for(final Future<?> helper : helpers){
+			try{
+				helper.get();
+			} catch(final InterruptedException e){
+				Thread.currentThread().interrupt();
+				break;
+			} catch(final ExecutionException e){
+				throw new RuntimeException("Helper search failed", e.getCause());
+			}
+		}
+		return bestMove;
+	}
+
+	public void setLimits(final SearchLimits limits){
+		this.mainSearch.setLimits(limits);
+		for(final AlphaBetaSearch helperSearch : this.helperSearches){
+			helperSearch.setLimits(limits);
+		}
+	}
+
+	// reported for the main search, with the nodes of every thread
+	public void setSearchListener(final SearchListener listener){
+		this.mainSearch.setSearchListener(listener == null ? null :
+			(depth, score, nodes, principalVariation) -> listener.iterationCompleted(depth, score, getNodes(), principalVariation));
+	}
+
+	public void setGameHistory(final long[] gameHashes){
+		this.mainSearch.setGameHistory(gameHashes);
+		for(final AlphaBetaSearch helperSearch : this.helperSearches){
+			helperSearch.setGameHistory(gameHashes);
+		}
+	}
+
+	public void setQuiescenceChecks(final boolean quiescenceChecks){
+		this.mainSearch.setQuiescenceChecks(quiescenceChecks);
+		for(final AlphaBetaSearch helperSearch : this.helperSearches){
+			helperSearch.setQuiescenceChecks(quiescenceChecks);
+		}
+	}
+
+	public void shutdown(){
+		this.helperStopSignal.set(true);
+		if(this.helperPool != null){
+			this.helperPool.shutdownNow();
+		}
+	}
+
+	public AlphaBetaSearch getMainSearch(){
+		return this.mainSearch;
+	}
+
+	public int getThreadCount(){
+		return this.helperSearches.size() + 1;
+	}
+
+	// safe to read while the search runs; each thread's part may lag by up to a node check interval
+	public long getNodes(){
+		return this.nodes.get();
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+public final class MaterialBoardEvaluator implements BoardEvaluator {
+
+	@Override
+	public int evaluate(final Board board, final int depth){
+		return material(board.getWhitePieces()) - material(board.getBlackPieces());
+	}
+
+	@Override
+	public int evaluate(final MutableBoard board, final int depth){
+		return material(board, Alliance.White) - material(board, Alliance.Black);
+	}
+
+	private static int material(final Iterable<Piece> pieces){
+		int material = 0;
+		for(final Piece piece : pieces){
+			if(!piece.getPieceType().isKing()){
+				material += piece.getPieceType().getPieceValue();
+			}
+		}
+		return material;
+	}
+
+	private static int material(final MutableBoard board, final Alliance alliance){
+		int material = 0;
+		for(final PieceType pieceType : PieceType.values()){
+			if(!pieceType.isKing()){
+				material += pieceType.getPieceValue() * BitBoard.count(board.getPieceBitboard(BitBoard.index(pieceType, alliance)));
+			}
+		}
+		return material;
+	}
+
+}
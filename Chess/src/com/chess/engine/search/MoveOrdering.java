@@ -0,0 +1,127 @@
+package com.chess.engine.search;
+
+import java.util.Arrays;
+
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.pieces.Piece.PieceType;
+
+// orders a node's moves as hash move, captures and promotions by MVV-LVA, two killers, then quiet moves by
+// history. each ply sorts into its own preallocated arrays, so ordering allocates nothing during search
+public final class MoveOrdering {
+
+	public static final int Max_Moves = 256;
+
+	private static final int Hash_Move_Score = 1 << 30;
+	private static final int Capture_Score = 1 << 28;
+	private static final int First_Killer_Score = 1 << 27;
+	private static final int Second_Killer_Score = First_Killer_Score - 1;
+	// history stays below the killers, halving every entry when one reaches the limit
+	private static final int Max_History = 1 << 20;
+	private static final int Num_Sides = 2;
+
+	private static final int[] Piece_Values = new int[PieceType.values().length];
+
+	static {
+		for(final PieceType pieceType : PieceType.values()){
+			Piece_Values[pieceType.ordinal()] = pieceType.getPieceValue();
+		}
+	}
+
+	private final int[][] moves = new int[SearchLimits.Max_Depth + 1][Max_Moves];
+	private final int[][] scores = new int[SearchLimits.Max_Depth + 1][Max_Moves];
+	private final int[][] killers = new int[SearchLimits.Max_Depth + 1][2];
+	private final int[][][] history = new int[Num_Sides][BoardUtils.Num_Tiles][BoardUtils.Num_Tiles];
+
+	// fills the ply's arrays with the moves, best first, and returns how many there are
+	public int orderMoves(final MoveList legalMoves, final int hashMove, final int ply){
+		final int[] plyMoves = this.moves[ply];
+		final int[] plyScores = this.scores[ply];
+		int count = 0;
+		for(int m = 0; m < legalMoves.size(); m++){
+			final int move = legalMoves.get(m);
+			final int score = score(move, hashMove, ply);
+			// insertion sort, the lists are short and arrive partly ordered by piece
+			int i = count++;
+			while(i > 0 && plyScores[i - 1] < score){
+				plyMoves[i] = plyMoves[i - 1];
+				plyScores[i] = plyScores[i - 1];
+				i--;
+			}
+			plyMoves[i] = move;
+			plyScores[i] = score;
+		}
+		return count;
+	}
+
+	public int getMove(final int ply, final int index){
+		return this.moves[ply][index];
+	}
+
+	// a quiet move that caused a beta cutoff becomes the ply's first killer and earns history by depth squared
+	public void updateCutoff(final int move, final int depth, final int ply){
+		if(isTactical(move)){
+			return;
+		}
+		final int moveCode = MoveEncoding.toShort(move);
+		final int[] plyKillers = this.killers[ply];
+		if(plyKillers[0] != moveCode){
+			plyKillers[1] = plyKillers[0];
+			plyKillers[0] = moveCode;
+		}
+		final int destination = MoveEncoding.destination(move);
+		final int[] fromHistory = this.history[side(move)][MoveEncoding.from(move)];
+		fromHistory[destination] += depth * depth;
+		if(fromHistory[destination] >= Max_History){
+			ageHistory();
+		}
+	}
+
+	// killers belong to the previous search's plies, history carries over at half weight
+	public void newSearch(){
+		for(final int[] plyKillers : this.killers){
+			Arrays.fill(plyKillers, 0);
+		}
+		ageHistory();
+	}
+
+	private int score(final int move, final int hashMove, final int ply){
+		final int moveCode = MoveEncoding.toShort(move);
+		if(hashMove != 0 && moveCode == hashMove){
+			return Hash_Move_Score;
+		}
+		if(isTactical(move)){
+			// most valuable victim first, least valuable attacker among equal victims
+			final int victimValue = (MoveEncoding.isCapture(move) ? Piece_Values[MoveEncoding.capturedType(move)] : 0) +
+									(MoveEncoding.isPromotion(move) ? Piece_Values[MoveEncoding.promotionType(move)] : 0);
+			return Capture_Score + victimValue * Piece_Values.length - MoveEncoding.movedType(move);
+		}
+		if(moveCode == this.killers[ply][0]){
+			return First_Killer_Score;
+		}
+		if(moveCode == this.killers[ply][1]){
+			return Second_Killer_Score;
+		}
+		return this.history[side(move)][MoveEncoding.from(move)][MoveEncoding.destination(move)];
+	}
+
+	private void ageHistory(){
+		for(final int[][] sideHistory : this.history){
+			for(final int[] fromHistory : sideHistory){
+				for(int to = 0; to < fromHistory.length; to++){
+					fromHistory[to] >>= 1;
+				}
+			}
+		}
+	}
+
+	static boolean isTactical(final int move){
+		return MoveEncoding.isCapture(move) || MoveEncoding.isPromotion(move);
+	}
+
+	private static int side(final int move){
+		return MoveEncoding.isBlackMover(move) ? 1 : 0;
+	}
+
+}
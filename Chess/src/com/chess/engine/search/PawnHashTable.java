@@ -0,0 +1,108 @@
+package com.chess.engine.search;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+// pawn structure evaluations by pawn-only Zobrist key, shared between search threads like the transposition table
+public final class PawnHashTable {
+
+	// data word layout: opening score 0-15 and endgame score 16-31 (signed), then per alliance and king file
+	// the number of shield pawns in 2 bits, white at 32-47 and black at 48-63
+	private static final int Endgame_Shift = 16;
+	private static final int Shield_Shift = 32;
+	private static final int Shield_Bits = 2;
+	private static final int Alliance_Shield_Bits = 16;
+
+	// one slot per entry, two longs per slot (key ^ data, data)
+	private static final int Longs_Per_Slot = 2;
+	private static final int Bytes_Per_Slot = Longs_Per_Slot * Long.BYTES;
+
+	private final long[] table;
+	private final int slotMask;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	public PawnHashTable(final int sizeInMB){
+		if(sizeInMB <= 0){
+			throw new IllegalArgumentException("Pawn hash table size must be positive: " + sizeInMB);
+		}
+		final long slots = Long.highestOneBit(((long) sizeInMB << 20) / Bytes_Per_Slot);
+		final int numSlots = (int) Math.min(slots, Integer.highestOneBit(Integer.MAX_VALUE / Longs_Per_Slot));
+		this.table = new long[numSlots * Longs_Per_Slot];
+		this.slotMask = numSlots - 1;
+	}
+
+	// the data stored for the key, or -1 on a miss. an empty slot holds key 0 with no scores and no shield pawns,
+	// which is exactly the entry of a position without pawns, so it needs no valid bit
+	public long probe(final long pawnHash){
+		final int slot = slotIndex(pawnHash);
+		final long data = this.table[slot + 1];
+		if((this.table[slot] ^ data) == pawnHash){
+			this.hits.increment();
+			return data;
+		}
+		this.misses.increment();
+		return -1L;
+	}
+
+	public void store(final long pawnHash, final long data){
+		final int slot = slotIndex(pawnHash);
+		this.table[slot] = pawnHash ^ data;
+		this.table[slot + 1] = data;
+	}
+
+	public void clear(){
+		Arrays.fill(this.table, 0L);
+		this.hits.reset();
+		this.misses.reset();
+	}
+
+	public long getHits(){
+		return this.hits.sum();
+	}
+
+	public long getMisses(){
+		return this.misses.sum();
+	}
+
+	// permill of probes that found their entry
+	public int hitRate(){
+		final long hits = getHits();
+		final long probes = hits + getMisses();
+		return probes == 0 ? 0 : (int) (hits * 1000 / probes);
+	}
+
+	public int getSizeInMB(){
+		return (int) (((long) this.table.length * Long.BYTES) >> 20);
+	}
+
+	private int slotIndex(final long pawnHash){
+		return ((int) (pawnHash ^ (pawnHash >>> 32)) & this.slotMask) * Longs_Per_Slot;
+	}
+
+	// shieldPawns holds the shield pawn counts of both alliances, see shieldPawns
+	public static long pack(final int opening, final int endgame, final int shieldPawns){
+		return (opening & 0xFFFFL) |
+			   ((endgame & 0xFFFFL) << Endgame_Shift) |
+			   ((shieldPawns & 0xFFFFFFFFL) << Shield_Shift);
+	}
+
+	public static int opening(final long data){
+		return (short) data;
+	}
+
+	public static int endgame(final long data){
+		return (short) (data >>> Endgame_Shift);
+	}
+
+	// shield pawns in front of a king of the alliance standing on the given column
+	public static int shieldPawns(final long data, final boolean white, final int column){
+		final int shift = Shield_Shift + (white ? 0 : Alliance_Shield_Bits) + column * Shield_Bits;
+		return (int) ((data >>> shift) & ((1 << Shield_Bits) - 1));
+	}
+
+	public static int packShieldPawns(final int shieldPawns, final boolean white, final int column){
+		return shieldPawns << ((white ? 0 : Alliance_Shield_Bits) + column * Shield_Bits);
+	}
+
+}
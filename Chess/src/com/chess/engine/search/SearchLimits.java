@@ -0,0 +1,48 @@
+package com.chess.engine.search;
+
+public final class SearchLimits {
+
+	public static final int Max_Depth = 64;
+
+	private final int maxDepth;
+	private final long maxTimeMillis;
+	private final long maxNodes;
+
+	public SearchLimits(final int maxDepth, final long maxTimeMillis, final long maxNodes){
+		this.maxDepth = Math.max(1, Math.min(maxDepth, Max_Depth));
+		this.maxTimeMillis = maxTimeMillis;
+		this.maxNodes = maxNodes;
+	}
+
+	public static SearchLimits depth(final int maxDepth){
+		return new SearchLimits(maxDepth, Long.MAX_VALUE, Long.MAX_VALUE);
+	}
+
+	public static SearchLimits time(final long maxTimeMillis){
+		return new SearchLimits(Max_Depth, maxTimeMillis, Long.MAX_VALUE);
+	}
+
+	public static SearchLimits nodes(final long maxNodes){
+		return new SearchLimits(Max_Depth, Long.MAX_VALUE, maxNodes);
+	}
+
+	public int getMaxDepth(){
+		return this.maxDepth;
+	}
+
+	public long getMaxTimeMillis(){
+		return this.maxTimeMillis;
+	}
+
+	public long getMaxNodes(){
+		return this.maxNodes;
+	}
+
+	@Override
+	public String toString(){
+		return "depth " + this.maxDepth +
+			   (this.maxTimeMillis == Long.MAX_VALUE ? "" : " movetime " + this.maxTimeMillis) +
+			   (this.maxNodes == Long.MAX_VALUE ? "" : " nodes " + this.maxNodes);
+	}
+
+}
@@ -0,0 +1,12 @@
+package com.chess.engine.search;
+
+import java.util.List;
+
+import com.chess.engine.board.Move;
+
+public interface SearchListener {
+
+	// called on the searching thread each time an iteration of the main search completes
+	void iterationCompleted(int depth, int score, long nodes, List<Move> principalVariation);
+
+}
@@ -0,0 +1,234 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.AttackTables;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.BitBoardPosition;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MagicBitboards;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.board.PieceSquareTables;
+import com.chess.engine.pieces.Piece.PieceType;
+
+// material and piece-square values kept by the board, tapered from opening to endgame by the pieces left,
+// plus mobility and king safety computed from the bitboards at each leaf and pawn structure from the pawn hash
+public final class StandardBoardEvaluator implements BoardEvaluator {
+
+	public static final int Default_Pawn_Hash_Size_MB = 1;
+
+	// game phase weights per piece type, 24 with every piece on the board
+	private static final int[] Phase_Weights = {0, 1, 1, 2, 4, 0};
+	private static final int Max_Phase = 24;
+	// per square a piece attacks that its own side does not occupy
+	private static final int[] Mobility_Opening = {0, 4, 5, 2, 1, 0};
+	private static final int[] Mobility_Endgame = {0, 4, 5, 4, 2, 0};
+	// weight of each attack on a square next to the enemy king
+	private static final int[] King_Attack_Weights = {0, 2, 2, 3, 5, 0};
+	private static final int Max_King_Attack_Bonus = 500;
+	private static final int Missing_Shield_Pawn_Penalty = 15;
+	private static final int Shield_Columns = 3;
+	private static final int Isolated_Opening = -10;
+	private static final int Isolated_Endgame = -20;
+	private static final int Doubled_Opening = -10;
+	private static final int Doubled_Endgame = -20;
+	private static final int Backward_Opening = -8;
+	private static final int Backward_Endgame = -10;
+	// by rows advanced from the pawn's starting row
+	private static final int[] Passed_Opening = {0, 5, 10, 20, 35, 60};
+	private static final int[] Passed_Endgame = {0, 10, 20, 40, 70, 120};
+
+	private static final long[] Column_Masks = new long[BoardUtils.Num_Tiles_Per_Row];
+	// by alliance ordinal and tile: the pawn's column ahead of it, the columns beside and ahead of it an enemy pawn
+	// would stop it on, and the columns beside it from its row back that an own pawn would defend it from
+	private static final long[][] Front_Masks = new long[2][BoardUtils.Num_Tiles];
+	private static final long[][] Passed_Masks = new long[2][BoardUtils.Num_Tiles];
+	private static final long[][] Support_Masks = new long[2][BoardUtils.Num_Tiles];
+
+	static {
+		for(int tile = 0; tile < BoardUtils.Num_Tiles; tile++){
+			Column_Masks[tile % BoardUtils.Num_Tiles_Per_Row] |= BitBoard.squareMask(tile);
+		}
+		for(final Alliance alliance : Alliance.values()){
+			for(int tile = 0; tile < BoardUtils.Num_Tiles; tile++){
+				final int row = tile / BoardUtils.Num_Tiles_Per_Row;
+				final int column = tile % BoardUtils.Num_Tiles_Per_Row;
+				for(int other = 0; other < BoardUtils.Num_Tiles; other++){
+					final int otherRow = other / BoardUtils.Num_Tiles_Per_Row;
+					final int columnDistance = Math.abs(other % BoardUtils.Num_Tiles_Per_Row - column);
+					// rows ahead of the pawn, in its direction of travel
+					final int rowsAhead = (otherRow - row) * alliance.getDirection();
+					if(rowsAhead > 0 && columnDistance == 0){
+						Front_Masks[alliance.ordinal()][tile] |= BitBoard.squareMask(other);
+					}
+					if(rowsAhead > 0 && columnDistance <= 1){
+						Passed_Masks[alliance.ordinal()][tile] |= BitBoard.squareMask(other);
+					}
+					if(rowsAhead <= 0 && columnDistance == 1){
+						Support_Masks[alliance.ordinal()][tile] |= BitBoard.squareMask(other);
+					}
+				}
+			}
+		}
+	}
+
+	private final PawnHashTable pawnHashTable;
+
+	public StandardBoardEvaluator(){
+		this(new PawnHashTable(Default_Pawn_Hash_Size_MB));
+	}
+
+	public StandardBoardEvaluator(final PawnHashTable pawnHashTable){
+		this.pawnHashTable = pawnHashTable;
+	}
+
+	public PawnHashTable getPawnHashTable(){
+		return this.pawnHashTable;
+	}
+
+	// both boards keep the piece-square score and pawn hash up to date, so either is read as it is
+	@Override
+	public int evaluate(final Board board, final int depth){
+		return evaluatePosition(board);
+	}
+
+	@Override
+	public int evaluate(final MutableBoard board, final int depth){
+		return evaluatePosition(board);
+	}
+
+	private int evaluatePosition(final BitBoardPosition board){
+		int phase = 0;
+		for(final PieceType pieceType : PieceType.values()){
+			phase += Phase_Weights[pieceType.ordinal()] *
+					 (BitBoard.count(pieces(board, pieceType, Alliance.White)) + BitBoard.count(pieces(board, pieceType, Alliance.Black)));
+		}
+		phase = Math.min(phase, Max_Phase);
+		final int pieceSquareScore = board.getPieceSquareScore();
+		int opening = PieceSquareTables.opening(pieceSquareScore);
+		int endgame = PieceSquareTables.endgame(pieceSquareScore);
+		final int whiteActivity = activity(board, Alliance.White);
+		final int blackActivity = activity(board, Alliance.Black);
+		opening += PieceSquareTables.opening(whiteActivity) - PieceSquareTables.opening(blackActivity);
+		endgame += PieceSquareTables.endgame(whiteActivity) - PieceSquareTables.endgame(blackActivity);
+		long pawnData = this.pawnHashTable.probe(board.getPawnHash());
+		if(pawnData == -1L){
+			pawnData = pawnStructure(board);
+			this.pawnHashTable.store(board.getPawnHash(), pawnData);
+		}
+		opening += PawnHashTable.opening(pawnData) + kingShelter(board, Alliance.White, pawnData) - kingShelter(board, Alliance.Black, pawnData);
+		endgame += PawnHashTable.endgame(pawnData);
+		return (opening * phase + endgame * (Max_Phase - phase)) / Max_Phase;
+	}
+
+	// mobility of the alliance's pieces plus the danger they pose to the enemy king, packed like the piece-square score
+	private static int activity(final BitBoardPosition board, final Alliance alliance){
+		final Alliance enemy = alliance.isWhite() ? Alliance.Black : Alliance.White;
+		final long occupancy = board.getOccupancy(Alliance.White.ordinal()) | board.getOccupancy(Alliance.Black.ordinal());
+		final long targets = ~board.getOccupancy(alliance.ordinal());
+		final int enemyKing = BitBoard.firstSquare(pieces(board, PieceType.KING, enemy));
+		final long kingZone = AttackTables.kingAttacks(enemyKing) | BitBoard.squareMask(enemyKing);
+		int opening = 0;
+		int endgame = 0;
+		int kingAttackUnits = 0;
+		for(int type = PieceType.KNIGHT.ordinal(); type <= PieceType.QUEEN.ordinal(); type++){
+			final PieceType pieceType = PieceType.values()[type];
+			for(long pieces = pieces(board, pieceType, alliance); pieces != BitBoard.Empty; pieces = BitBoard.clearFirst(pieces)){
+				final long attacks = attacks(pieceType, BitBoard.firstSquare(pieces), occupancy);
+				final int mobility = BitBoard.count(attacks & targets);
+				opening += Mobility_Opening[type] * mobility;
+				endgame += Mobility_Endgame[type] * mobility;
+				kingAttackUnits += King_Attack_Weights[type] * BitBoard.count(attacks & kingZone);
+			}
+		}
+		// danger grows faster than the number of attacks; it only matters while there are pieces to mate with
+		opening += Math.min(kingAttackUnits * kingAttackUnits, Max_King_Attack_Bonus);
+		return PieceSquareTables.pack(opening, endgame);
+	}
+
+	private static long attacks(final PieceType pieceType, final int tile, final long occupancy){
+		switch(pieceType){
+			case KNIGHT:
+				return AttackTables.knightAttacks(tile);
+			case BISHOP:
+				return MagicBitboards.bishopAttacks(tile, occupancy);
+			case ROOK:
+				return MagicBitboards.rookAttacks(tile, occupancy);
+			default:
+				return MagicBitboards.queenAttacks(tile, occupancy);
+		}
+	}
+
+	// passed, isolated, doubled and backward pawns of both alliances, and the shield pawns each king column would have
+	private static long pawnStructure(final BitBoardPosition board){
+		int opening = 0;
+		int endgame = 0;
+		int shieldPawns = 0;
+		for(final Alliance alliance : Alliance.values()){
+			final Alliance enemy = alliance.isWhite() ? Alliance.Black : Alliance.White;
+			final int sign = alliance.isWhite() ? 1 : -1;
+			final long pawns = pieces(board, PieceType.PAWN, alliance);
+			final long enemyPawns = pieces(board, PieceType.PAWN, enemy);
+			for(long remaining = pawns; remaining != BitBoard.Empty; remaining = BitBoard.clearFirst(remaining)){
+				final int tile = BitBoard.firstSquare(remaining);
+				final int column = tile % BoardUtils.Num_Tiles_Per_Row;
+				final long neighbours = (column > 0 ? Column_Masks[column - 1] : 0L) | (column < BoardUtils.Num_Tiles_Per_Row - 1 ? Column_Masks[column + 1] : 0L);
+				final boolean isolated = (pawns & neighbours) == 0;
+				if(isolated){
+					opening += sign * Isolated_Opening;
+					endgame += sign * Isolated_Endgame;
+				}
+				// only the rear pawn of a doubled pair is penalized, so each extra pawn counts once
+				if((pawns & Front_Masks[alliance.ordinal()][tile]) != 0){
+					opening += sign * Doubled_Opening;
+					endgame += sign * Doubled_Endgame;
+				} else if((enemyPawns & Passed_Masks[alliance.ordinal()][tile]) == 0){
+					final int row = tile / BoardUtils.Num_Tiles_Per_Row;
+					final int advanced = alliance.isWhite() ? BoardUtils.Num_Tiles_Per_Row - 2 - row : row - 1;
+					opening += sign * Passed_Opening[advanced];
+					endgame += sign * Passed_Endgame[advanced];
+				}
+				final int stopTile = tile + alliance.getDirection() * BoardUtils.Num_Tiles_Per_Row;
+				if(!isolated && (pawns & Support_Masks[alliance.ordinal()][tile]) == 0 &&
+				   (AttackTables.pawnAttacks(alliance, stopTile) & enemyPawns) != 0){
+					opening += sign * Backward_Opening;
+					endgame += sign * Backward_Endgame;
+				}
+			}
+			// columns with an own pawn on either of the two rows in front of the home row
+			final int homeRow = alliance.isWhite() ? BoardUtils.Num_Tiles_Per_Row - 1 : 0;
+			final long shieldRows = rowMask(homeRow + alliance.getDirection()) | rowMask(homeRow + 2 * alliance.getDirection());
+			for(int column = 0; column < BoardUtils.Num_Tiles_Per_Row; column++){
+				int shield = 0;
+				for(int shieldColumn = column - 1; shieldColumn <= column + 1; shieldColumn++){
+					if(shieldColumn >= 0 && shieldColumn < BoardUtils.Num_Tiles_Per_Row && (pawns & shieldRows & Column_Masks[shieldColumn]) != 0){
+						shield++;
+					}
+				}
+				shieldPawns |= PawnHashTable.packShieldPawns(shield, alliance.isWhite(), column);
+			}
+		}
+		return PawnHashTable.pack(opening, endgame, shieldPawns);
+	}
+
+	// missing shield pawns in front of a king still on its two back rows; only the king tile is not in the pawn entry
+	private static int kingShelter(final BitBoardPosition board, final Alliance alliance, final long pawnData){
+		final int kingTile = BitBoard.firstSquare(pieces(board, PieceType.KING, alliance));
+		final int homeRow = alliance.isWhite() ? BoardUtils.Num_Tiles_Per_Row - 1 : 0;
+		if(Math.abs(kingTile / BoardUtils.Num_Tiles_Per_Row - homeRow) > 1){
+			return 0;
+		}
+		final int column = kingTile % BoardUtils.Num_Tiles_Per_Row;
+		final int shieldColumns = column == 0 || column == BoardUtils.Num_Tiles_Per_Row - 1 ? Shield_Columns - 1 : Shield_Columns;
+		return -Missing_Shield_Pawn_Penalty * (shieldColumns - PawnHashTable.shieldPawns(pawnData, alliance.isWhite(), column));
+	}
+
+	private static long pieces(final BitBoardPosition board, final PieceType pieceType, final Alliance alliance){
+		return board.getPieceBitboard(BitBoard.index(pieceType, alliance));
+	}
+
+	private static long rowMask(final int row){
+		return 0xFFL << (row * BoardUtils.Num_Tiles_Per_Row);
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+// static exchange evaluation: the material a capture wins once both sides have recaptured on its destination with
+// their least valuable attackers for as long as that pays. attackers come from the attack tables over a shrinking
+// occupancy, so sliders behind a capturer join in without any move being made. each searcher owns an instance,
+// whose gain list is reused by every evaluation, so instances are not to be shared between threads
+public final class StaticExchange {
+
+	// more captures than pieces on the board can not happen
+	private static final int Max_Exchanges = 32;
+	private static final PieceType[] Piece_Types = PieceType.values();
+	private static final int White = Alliance.White.ordinal();
+	private static final int Black = Alliance.Black.ordinal();
+
+	private final int[] gains = new int[Max_Exchanges];
+
+	// the move is encoded for the board's side to move
+	public int evaluate(final MutableBoard board, final int move){
+		final int destination = MoveEncoding.destination(move);
+		final int[] gains = this.gains;
+		gains[0] = 0;
+		long occupancy = board.getOccupancy(White) | board.getOccupancy(Black);
+		occupancy &= ~BitBoard.squareMask(MoveEncoding.from(move));
+		int pieceOnDestination = value(MoveEncoding.movedType(move));
+		if(MoveEncoding.isCapture(move)){
+			gains[0] = value(MoveEncoding.capturedType(move));
+			// en passant removes a pawn that is not on the destination
+			if(MoveEncoding.isEnPassant(move)){
+				occupancy &= ~BitBoard.squareMask(destination + (MoveEncoding.isBlackMover(move) ? -BoardUtils.Num_Tiles_Per_Row : BoardUtils.Num_Tiles_Per_Row));
+			}
+		}
+		if(MoveEncoding.isPromotion(move)){
+			pieceOnDestination = value(MoveEncoding.promotionType(move));
+			gains[0] += pieceOnDestination - PieceType.PAWN.getPieceValue();
+		}
+		int side = MoveEncoding.isBlackMover(move) ? White : Black;
+		int exchanges = 0;
+		while(exchanges + 1 < Max_Exchanges){
+			final long attackers = board.getAttackers(destination, side, occupancy) & occupancy;
+			if(attackers == BitBoard.Empty){
+				break;
+			}
+			int attackerType = 0;
+			long attacker = BitBoard.Empty;
+			for(int pieceType = 0; pieceType < BitBoard.Num_Piece_Types; pieceType++){
+				attacker = attackers & board.getPieceBitboard(side * BitBoard.Num_Piece_Types + pieceType);
+				if(attacker != BitBoard.Empty){
+					attackerType = pieceType;
+					break;
+				}
+			}
+			// a king may only recapture when nothing guards the square any more
+			if(Piece_Types[attackerType].isKing() && (board.getAttackers(destination, side ^ 1, occupancy) & occupancy) != BitBoard.Empty){
+				break;
+			}
+			exchanges++;
+			gains[exchanges] = pieceOnDestination - gains[exchanges - 1];
+			pieceOnDestination = value(attackerType);
+			occupancy &= ~(attacker & -attacker);
+			side ^= 1;
+		}
+		// either side may stop recapturing when going on would lose material
+		while(exchanges > 0){
+			gains[exchanges - 1] = -Math.max(-gains[exchanges - 1], gains[exchanges]);
+			exchanges--;
+		}
+		return gains[0];
+	}
+
+	public boolean isLosing(final MutableBoard board, final int move){
+		return evaluate(board, move) < 0;
+	}
+
+	private static int value(final int pieceType){
+		return Piece_Types[pieceType].getPieceValue();
+	}
+
+}
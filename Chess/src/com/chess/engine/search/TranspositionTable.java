@@ -0,0 +1,124 @@
+package com.chess.engine.search;
+
+import java.util.Arrays;
+
+public final class TranspositionTable {
+
+	public static final int Bound_Exact = 1;
+	public static final int Bound_Lower = 2;
+	public static final int Bound_Upper = 3;
+
+	public static final long Miss = 0L;
+
+	// data word layout: move 0-15, score 16-31 (signed), depth 32-39, bound 40-41, generation 42-49
+	private static final int Score_Shift = 16;
+	private static final int Depth_Shift = 32;
+	private static final int Bound_Shift = 40;
+	private static final int Generation_Shift = 42;
+
+	// two slots per bucket (depth-preferred, always-replace), two longs per slot (key ^ data, data)
+	private static final int Longs_Per_Slot = 2;
+	private static final int Longs_Per_Bucket = 2 * Longs_Per_Slot;
+	private static final int Bytes_Per_Bucket = Longs_Per_Bucket * Long.BYTES;
+
+	private final long[] table;
+	private final int bucketMask;
+	private volatile int generation;
+
+	public TranspositionTable(final int sizeInMB){
+		if(sizeInMB <= 0){
+			throw new IllegalArgumentException("Transposition table size must be positive: " + sizeInMB);
+		}
+		final long buckets = Long.highestOneBit(((long) sizeInMB << 20) / Bytes_Per_Bucket);
+		final int numBuckets = (int) Math.min(buckets, Integer.highestOneBit(Integer.MAX_VALUE / Longs_Per_Bucket));
+		this.table = new long[numBuckets * Longs_Per_Bucket];
+		this.bucketMask = numBuckets - 1;
+	}
+
+	public long probe(final long zobristHash){
+		final int bucket = bucketIndex(zobristHash);
+		for(int slot = bucket; slot < bucket + Longs_Per_Bucket; slot += Longs_Per_Slot){
+			final long data = this.table[slot + 1];
+			if((this.table[slot] ^ data) == zobristHash && data != Miss){
+				return data;
+			}
+		}
+		return Miss;
+	}
+
+	public void store(final long zobristHash, final int move, final int score, final int depth, final int bound){
+		final int bucket = bucketIndex(zobristHash);
+		final int currentGeneration = this.generation;
+		final long data = pack(move, score, depth, bound, currentGeneration);
+		final long preferredData = this.table[bucket + 1];
+		final boolean sameKey = (this.table[bucket] ^ preferredData) == zobristHash;
+		if(sameKey || preferredData == Miss || depth >= depth(preferredData) ||
+		   generation(preferredData) != (currentGeneration & 0xFF)){
+			// keep the previous best move when the new result has none
+			final long storedData = sameKey && move == 0 ? pack(move(preferredData), score, depth, bound, currentGeneration) : data;
+			this.table[bucket] = zobristHash ^ storedData;
+			this.table[bucket + 1] = storedData;
+		} else{
+			this.table[bucket + Longs_Per_Slot] = zobristHash ^ data;
+			this.table[bucket + Longs_Per_Slot + 1] = data;
+		}
+	}
+
+	public void newSearch(){
+		this.generation = (this.generation + 1) & 0xFF;
+	}
+
+	public void clear(){
+		Arrays.fill(this.table, 0L);
+	}
+
+	// permill of sampled slots written during the current search, as reported by UCI "hashfull"
+	public int hashFull(){
+		final int samples = Math.min(1000, this.table.length / Longs_Per_Slot);
+		int used = 0;
+		for(int i = 0; i < samples; i++){
+			final long data = this.table[i * Longs_Per_Slot + 1];
+			if(data != Miss && generation(data) == this.generation){
+				used++;
+			}
+		}
+		return samples == 0 ? 0 : used * 1000 / samples;
+	}
+
+	public int getSizeInMB(){
+		return (int) (((long) this.table.length * Long.BYTES) >> 20);
+	}
+
+	private int bucketIndex(final long zobristHash){
+		return ((int) (zobristHash ^ (zobristHash >>> 32)) & this.bucketMask) * Longs_Per_Bucket;
+	}
+
+	private static long pack(final int move, final int score, final int depth, final int bound, final int generation){
+		return (move & 0xFFFFL) |
+			   ((score & 0xFFFFL) << Score_Shift) |
+			   ((long) (depth & 0xFF) << Depth_Shift) |
+			   ((long) (bound & 0x3) << Bound_Shift) |
+			   ((long) (generation & 0xFF) << Generation_Shift);
+	}
+
+	public static int move(final long data){
+		return (int) (data & 0xFFFF);
+	}
+
+	public static int score(final long data){
+		return (short) (data >>> Score_Shift);
+	}
+
+	public static int depth(final long data){
+		return (int) ((data >>> Depth_Shift) & 0xFF);
+	}
+
+	public static int bound(final long data){
+		return (int) ((data >>> Bound_Shift) & 0x3);
+	}
+
+	private static int generation(final long data){
+		return (int) ((data >>> Generation_Shift) & 0xFF);
+	}
+
+}
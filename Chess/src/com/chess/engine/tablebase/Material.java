@@ -0,0 +1,269 @@
+package com.chess.engine.tablebase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece.PieceType;
+
+// a set of pieces such as "KRPvKR" and the index of its positions: side to move, the white king folded onto
+// files a-d by mirroring, then one tile per remaining piece. white is always the side with more material
+public final class Material {
+
+	private static final String Piece_Letters = "PNBRQK";
+	private static final int King_Slots = 32;
+	private static final int Slot_Bits = 6;
+	private static final int Count_Bits = 4;
+
+	private final String name;
+	// bitboard index per piece slot, white king first, then white pieces, black king and black pieces
+	private final int[] slots;
+	// how many earlier slots hold the same piece, which picks the piece's tile among equal ones
+	private final int[] occurrences;
+	private final long signature;
+	private final long flippedSignature;
+	private final int size;
+
+	private Material(final int[] slots){
+		this.slots = slots;
+		this.occurrences = new int[slots.length];
+		final long[] counts = new long[BitBoard.Num_Piece_Bitboards];
+		for(int i = 0; i < slots.length; i++){
+			this.occurrences[i] = (int) counts[slots[i]]++;
+		}
+		this.signature = pack(counts);
+		this.flippedSignature = pack(flip(counts));
+		this.size = 2 * King_Slots << (Slot_Bits * (slots.length - 1));
+		this.name = name(slots);
+	}
+
+	// "KQvK", "KRvKB", ...; the sides are swapped when black holds more material
+	public static Material parse(final String name){
+		final int separator = name.indexOf('v');
+		if(separator < 0){
+			throw new RuntimeException("Invalid material " + name);
+		}
+		final List<Integer> white = pieces(name.substring(0, separator), Alliance.White, name);
+		final List<Integer> black = pieces(name.substring(separator + 1), Alliance.Black, name);
+		return of(white, black);
+	}
+
+	public static Material of(final Board board){
+		final List<Integer> white = new ArrayList<>();
+		final List<Integer> black = new ArrayList<>();
+		for(int pieceIndex = BitBoard.Num_Piece_Bitboards - 1; pieceIndex >= 0; pieceIndex--){
+			final List<Integer> side = BitBoard.allianceOf(pieceIndex).isWhite() ? white : black;
+			for(int i = 0; i < BitBoard.count(board.getPieceBitboard(BitBoard.pieceTypeOf(pieceIndex), BitBoard.allianceOf(pieceIndex))); i++){
+				side.add(pieceIndex);
+			}
+		}
+		return of(white, black);
+	}
+
+	// piece counts packed four bits per bitboard index, as a cheap key for a position's material
+	public static long signature(final long[] pieceBitboards){
+		long signature = 0L;
+		for(int pieceIndex = 0; pieceIndex < BitBoard.Num_Piece_Bitboards; pieceIndex++){
+			signature |= (long) BitBoard.count(pieceBitboards[pieceIndex]) << (Count_Bits * pieceIndex);
+		}
+		return signature;
+	}
+
+	private static long pack(final long[] counts){
+		long signature = 0L;
+		for(int pieceIndex = 0; pieceIndex < BitBoard.Num_Piece_Bitboards; pieceIndex++){
+			signature |= counts[pieceIndex] << (Count_Bits * pieceIndex);
+		}
+		return signature;
+	}
+
+	public String getName(){
+		return this.name;
+	}
+
+	public long getSignature(){
+		return this.signature;
+	}
+
+	// the signature of the same material with the colours swapped, which this table also answers
+	public long getFlippedSignature(){
+		return this.flippedSignature;
+	}
+
+	public int size(){
+		return this.size;
+	}
+
+	public int getPieceCount(){
+		return this.slots.length;
+	}
+
+	// the material after a capture and/or a promotion, as the (possibly colour-swapped) table that holds it
+	public Material without(final int capturedPieceIndex, final int promotedPawnIndex, final int promotionPieceIndex){
+		final List<Integer> white = new ArrayList<>();
+		final List<Integer> black = new ArrayList<>();
+		boolean captured = capturedPieceIndex < 0;
+		boolean promoted = promotedPawnIndex < 0;
+		for(final int pieceIndex : this.slots){
+			int piece = pieceIndex;
+			if(!captured && piece == capturedPieceIndex){
+				captured = true;
+				continue;
+			}
+			if(!promoted && piece == promotedPawnIndex){
+				promoted = true;
+				piece = promotionPieceIndex;
+			}
+			(BitBoard.allianceOf(piece).isWhite() ? white : black).add(piece);
+		}
+		return of(white, black);
+	}
+
+	// the index of the position, -1 when the table does not hold it; flipped reads the board with the colours swapped
+	public int index(final long[] pieceBitboards, final boolean whiteToMove, final boolean flipped){
+		final int whiteKing = tile(pieceBitboards, 0, flipped);
+		final int mirror = whiteKing % BoardUtils.Num_Tiles_Per_Row >= BoardUtils.Num_Tiles_Per_Row / 2 ? 7 : 0;
+		final int kingTile = whiteKing ^ mirror;
+		int index = (whiteToMove != flipped ? 0 : 1) * King_Slots +
+					(kingTile / BoardUtils.Num_Tiles_Per_Row) * (BoardUtils.Num_Tiles_Per_Row / 2) + kingTile % BoardUtils.Num_Tiles_Per_Row;
+		for(int slot = 1; slot < this.slots.length; slot++){
+			final int tile = tile(pieceBitboards, slot, flipped);
+			if(tile < 0){
+				return -1;
+			}
+			index = (index << Slot_Bits) | (tile ^ mirror);
+		}
+		return index;
+	}
+
+	// places the position with the given index, false when two pieces share a tile or a pawn stands on a back rank
+	public boolean decode(final int index, final long[] pieceBitboards){
+		for(int pieceIndex = 0; pieceIndex < pieceBitboards.length; pieceIndex++){
+			pieceBitboards[pieceIndex] = BitBoard.Empty;
+		}
+		long occupancy = BitBoard.Empty;
+		int rest = index;
+		for(int slot = this.slots.length - 1; slot >= 0; slot--){
+			final int tile;
+			if(slot == 0){
+				final int kingSlot = rest % King_Slots;
+				tile = (kingSlot / (BoardUtils.Num_Tiles_Per_Row / 2)) * BoardUtils.Num_Tiles_Per_Row + kingSlot % (BoardUtils.Num_Tiles_Per_Row / 2);
+			} else{
+				tile = rest & (BoardUtils.Num_Tiles - 1);
+				rest >>>= Slot_Bits;
+			}
+			final long mask = BitBoard.squareMask(tile);
+			if((occupancy & mask) != 0 ||
+			   (BitBoard.pieceTypeOf(this.slots[slot]) == PieceType.PAWN && (BoardUtils.First_Row[tile] || BoardUtils.Eighth_Row[tile]))){
+				return false;
+			}
+			occupancy |= mask;
+			pieceBitboards[this.slots[slot]] |= mask;
+		}
+		return true;
+	}
+
+	public static boolean isWhiteToMove(final int index, final int pieceCount){
+		return index >>> (Slot_Bits * (pieceCount - 1)) < King_Slots;
+	}
+
+	@Override
+	public String toString(){
+		return this.name;
+	}
+
+	private int tile(final long[] pieceBitboards, final int slot, final boolean flipped){
+		final int pieceIndex = flipped ? flipColour(this.slots[slot]) : this.slots[slot];
+		long pieces = pieceBitboards[pieceIndex];
+		for(int i = 0; i < this.occurrences[slot]; i++){
+			pieces = BitBoard.clearFirst(pieces);
+		}
+		if(pieces == BitBoard.Empty){
+			return -1;
+		}
+		final int tile = BitBoard.firstSquare(pieces);
+		// rows run the other way for the swapped colours
+		return flipped ? tile ^ 56 : tile;
+	}
+
+	private static Material of(final List<Integer> white, final List<Integer> black){
+		if(value(black) > value(white) || (value(black) == value(white) && black.size() > white.size())){
+			final List<Integer> swappedWhite = new ArrayList<>();
+			final List<Integer> swappedBlack = new ArrayList<>();
+			for(final int piece : black){
+				swappedWhite.add(flipColour(piece));
+			}
+			for(final int piece : white){
+				swappedBlack.add(flipColour(piece));
+			}
+			return of(swappedWhite, swappedBlack);
+		}
+		white.sort((first, second) -> second - first);
+		black.sort((first, second) -> second - first);
+		final int[] slots = new int[white.size() + black.size()];
+		for(int i = 0; i < white.size(); i++){
+			slots[i] = white.get(i);
+		}
+		for(int i = 0; i < black.size(); i++){
+			slots[white.size() + i] = black.get(i);
+		}
+		if(white.isEmpty() || BitBoard.pieceTypeOf(slots[0]) != PieceType.KING ||
+		   black.isEmpty() || BitBoard.pieceTypeOf(slots[white.size()]) != PieceType.KING){
+			throw new RuntimeException("Material needs one king per side");
+		}
+		return new Material(slots);
+	}
+
+	private static List<Integer> pieces(final String letters, final Alliance alliance, final String name){
+		final List<Integer> pieces = new ArrayList<>();
+		int kings = 0;
+		for(int i = 0; i < letters.length(); i++){
+			final int type = Piece_Letters.indexOf(Character.toUpperCase(letters.charAt(i)));
+			if(type < 0){
+				throw new RuntimeException("Invalid material " + name);
+			}
+			final PieceType pieceType = PieceType.values()[type];
+			kings += pieceType == PieceType.KING ? 1 : 0;
+			pieces.add(BitBoard.index(pieceType, alliance));
+		}
+		if(kings != 1){
+			throw new RuntimeException("Invalid material " + name);
+		}
+		return pieces;
+	}
+
+	private static int value(final List<Integer> pieces){
+		int value = 0;
+		for(final int piece : pieces){
+			value += BitBoard.pieceTypeOf(piece).getPieceValue();
+		}
+		return value;
+	}
+
+	private static int flipColour(final int pieceIndex){
+		return (pieceIndex + BitBoard.Num_Piece_Types) % BitBoard.Num_Piece_Bitboards;
+	}
+
+	private static long[] flip(final long[] counts){
+		final long[] flipped = new long[counts.length];
+		for(int pieceIndex = 0; pieceIndex < counts.length; pieceIndex++){
+			flipped[flipColour(pieceIndex)] = counts[pieceIndex];
+		}
+		return flipped;
+	}
+
+	private static String name(final int[] slots){
+		final StringBuilder name = new StringBuilder();
+		for(int i = 0; i < slots.length; i++){
+			if(i > 0 && BitBoard.allianceOf(slots[i]).isBlack() && BitBoard.allianceOf(slots[i - 1]).isWhite()){
+				name.append('v');
+			}
+			name.append(Piece_Letters.charAt(BitBoard.pieceTypeOf(slots[i]).ordinal()));
+		}
+		return name.toString();
+	}
+
+}
@@ -0,0 +1,265 @@
+package com.chess.engine.tablebase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+// builds distance-to-mate tables by retrograde iteration: pass n marks the positions mated in n plies, or that mate
+// in n plies, from the values of pass n - 1. every table a capture or promotion leads into is built first
+public final class TablebaseGenerator {
+
+	private static final int Leaf_Positions = 1 << 14;
+	private static final int Write_Buffer_Size = 1 << 20;
+	private static final PieceType[] Promotion_Types = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+
+	private final Path directory;
+	private final ForkJoinPool pool;
+	private final Map<String, Table> tables = new HashMap<>();
+
+	public TablebaseGenerator(final Path directory){
+		this(directory, Runtime.getRuntime().availableProcessors());
+	}
+
+	public TablebaseGenerator(final Path directory, final int threads){
+		this.directory = directory;
+		this.pool = new ForkJoinPool(threads);
+	}
+
+	// generates the table for e.g. "KRvK" and every table it depends on, reusing the files already in the directory
+	public Path generate(final String materialName) throws IOException{
+		final Material material = Material.parse(materialName);
+		table(material);
+		return Tablebases.path(this.directory, material);
+	}
+
+	public void shutdown(){
+		this.pool.shutdownNow();
+	}
+
+	private Table table(final Material material) throws IOException{
+		Table table = this.tables.get(material.getName());
+		if(table != null){
+			return table;
+		}
+		final Path path = Tablebases.path(this.directory, material);
+		if(Files.exists(path)){
+			table = new Table(material, Tablebases.read(path, material));
+		} else{
+			table = new Table(material, new byte[material.size()]);
+			resolveExits(table);
+			build(table);
+			Tablebases.write(path, material, table.values, Write_Buffer_Size);
+		}
+		this.tables.put(material.getName(), table);
+		return table;
+	}
+
+	// every table a capture, a promotion or a capturing promotion leads into
+	private void resolveExits(final Table table) throws IOException{
+		for(final Alliance mover : Alliance.values()){
+			final Alliance victim = mover.isWhite() ? Alliance.Black : Alliance.White;
+			final int pawn = BitBoard.index(PieceType.PAWN, mover);
+			for(int captured = -1; captured < BitBoard.Num_Piece_Bitboards; captured++){
+				if(captured >= 0 && (BitBoard.allianceOf(captured) != victim || BitBoard.pieceTypeOf(captured).isKing() || !table.holds(captured))){
+					continue;
+				}
+				if(captured >= 0){
+					addExit(table, captured, -1, -1);
+				}
+				if(table.holds(pawn)){
+					for(final PieceType promotionType : Promotion_Types){
+						addExit(table, captured, pawn, BitBoard.index(promotionType, mover));
+					}
+				}
+			}
+		}
+		for(final Table exit : table.exits.values()){
+			table.maxExitPlies = Math.max(table.maxExitPlies, exit.maxPlies());
+		}
+	}
+
+	private void addExit(final Table table, final int captured, final int promotedPawn, final int promotion) throws IOException{
+		table.exits.put(exitKey(captured, promotion), table(table.material.without(captured, promotedPawn, promotion)));
+	}
+
+	private void build(final Table table){
+		this.pool.invoke(new PassTask(table, 0, 0, table.values.length));
+		int changed = 1;
+		for(int pass = 1; changed > 0 || pass <= table.maxExitPlies + 1; pass++){
+			if(pass > Tablebases.Max_Plies){
+				throw new RuntimeException("Distance to mate of " + table.material + " exceeds " + Tablebases.Max_Plies + " plies");
+			}
+			table.changed.set(0);
+			this.pool.invoke(new PassTask(table, pass, 0, table.values.length));
+			changed = table.changed.get();
+		}
+		for(int i = 0; i < table.values.length; i++){
+			if(table.values[i] == Tablebases.Draw_Final){
+				table.values[i] = Tablebases.Draw;
+			}
+		}
+	}
+
+	private static int exitKey(final int capturedPieceIndex, final int promotionPieceIndex){
+		return (capturedPieceIndex + 1) * (BitBoard.Num_Piece_Bitboards + 1) + promotionPieceIndex + 1;
+	}
+
+	private static final class Table {
+
+		private final Material material;
+		private final byte[] values;
+		private final Map<Integer, Table> exits = new HashMap<>();
+		private final AtomicInteger changed = new AtomicInteger();
+		private int maxExitPlies;
+
+		Table(final Material material, final byte[] values){
+			this.material = material;
+			this.values = values;
+		}
+
+		boolean holds(final int pieceIndex){
+			return pieceIndex < 0 || ((this.material.getSignature() >>> (4 * pieceIndex)) & 0xF) != 0;
+		}
+
+		int maxPlies(){
+			int maxPlies = 0;
+			for(final byte value : this.values){
+				if(Tablebases.isDecisive(value)){
+					maxPlies = Math.max(maxPlies, Tablebases.pliesToMate(value));
+				}
+			}
+			return maxPlies;
+		}
+
+	}
+
+	// one pass over a range of indices, split until a leaf is small enough to scan with its own board
+	private static final class PassTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Table table;
+		private final int pass;
+		private final int start;
+		private final int end;
+
+		PassTask(final Table table, final int pass, final int start, final int end){
+			this.table = table;
+			this.pass = pass;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute(){
+			if(this.end - this.start > Leaf_Positions){
+				final int middle = (this.start + this.end) >>> 1;
+				invokeAll(new PassTask(this.table, this.pass, this.start, middle), new PassTask(this.table, this.pass, middle, this.end));
+				return;
+			}
+			final MutableBoard board = new MutableBoard();
+			final MoveList moves = new MoveList();
+			final long[] pieceBitboards = new long[BitBoard.Num_Piece_Bitboards];
+			final byte[] values = this.table.values;
+			final int pieceCount = this.table.material.getPieceCount();
+			int changed = 0;
+			for(int index = this.start; index < this.end; index++){
+				if(values[index] != Tablebases.Draw){
+					continue;
+				}
+				if(!this.table.material.decode(index, pieceBitboards)){
+					if(this.pass == 0){
+						values[index] = Tablebases.Invalid;
+					}
+					continue;
+				}
+				board.clear();
+				for(int pieceIndex = 0; pieceIndex < pieceBitboards.length; pieceIndex++){
+					for(long pieces = pieceBitboards[pieceIndex]; pieces != BitBoard.Empty; pieces = BitBoard.clearFirst(pieces)){
+						board.placePiece(pieceIndex, BitBoard.firstSquare(pieces));
+					}
+				}
+				final Alliance moveMaker = Material.isWhiteToMove(index, pieceCount) ? Alliance.White : Alliance.Black;
+				board.setState(moveMaker, 0, -1, 0L);
+				final byte value = this.pass == 0 ? initial(board, moves) : iterate(board, moves, pieceBitboards);
+				if(value != Tablebases.Draw){
+					values[index] = value;
+					changed++;
+				}
+			}
+			this.table.changed.addAndGet(changed);
+		}
+
+		// pass 0: positions that can not occur, mates and stalemates
+		private byte initial(final MutableBoard board, final MoveList moves){
+			final Alliance opponent = board.getMoveMaker().isWhite() ? Alliance.Black : Alliance.White;
+			final int opponentKing = BitBoard.firstSquare(board.getPieceBitboard(BitBoard.index(PieceType.KING, opponent)));
+			if(board.isSquareAttacked(opponentKing, board.getMoveMaker().ordinal())){
+				return Tablebases.Invalid;
+			}
+			if(board.generateLegalMoves(moves) == 0){
+				return board.isInCheck() ? Tablebases.value(0) : Tablebases.Draw_Final;
+			}
+			return Tablebases.Draw;
+		}
+
+		// pass n: a move to a position lost in n - 1 plies wins in n; if every move reaches a position won within n - 1
+		// plies, the longest of them is n - 1 plies, or this position would have been resolved by an earlier pass
+		private byte iterate(final MutableBoard board, final MoveList moves, final long[] pieceBitboards){
+			board.generateLegalMoves(moves);
+			boolean allWinning = true;
+			for(int i = 0; i < moves.size(); i++){
+				final int move = moves.get(i);
+				board.makeMove(move);
+				for(int pieceIndex = 0; pieceIndex < pieceBitboards.length; pieceIndex++){
+					pieceBitboards[pieceIndex] = board.getPieceBitboard(pieceIndex);
+				}
+				final byte successor = successor(board, move, pieceBitboards);
+				board.unmakeMove();
+				if(!Tablebases.isDecisive(successor) || Tablebases.pliesToMate(successor) >= this.pass){
+					allWinning = false;
+					continue;
+				}
+				if(!Tablebases.isWin(successor) && Tablebases.pliesToMate(successor) == this.pass - 1){
+					return Tablebases.value(this.pass);
+				}
+				if(!Tablebases.isWin(successor)){
+					allWinning = false;
+				}
+			}
+			return allWinning ? Tablebases.value(this.pass) : Tablebases.Draw;
+		}
+
+		private byte successor(final MutableBoard board, final int move, final long[] pieceBitboards){
+			final boolean whiteToMove = board.getMoveMaker().isWhite();
+			Table target = this.table;
+			if(MoveEncoding.isCapture(move) || MoveEncoding.isPromotion(move)){
+				final Alliance mover = MoveEncoding.isBlackMover(move) ? Alliance.Black : Alliance.White;
+				final Alliance victim = mover.isWhite() ? Alliance.Black : Alliance.White;
+				final int captured = MoveEncoding.isCapture(move) ?
+					BitBoard.index(MoveEncoding.pieceType(MoveEncoding.capturedType(move)), victim) : -1;
+				final int promotion = MoveEncoding.isPromotion(move) ?
+					BitBoard.index(MoveEncoding.pieceType(MoveEncoding.promotionType(move)), mover) : -1;
+				target = this.table.exits.get(exitKey(captured, promotion));
+			}
+			final long signature = Material.signature(pieceBitboards);
+			final boolean flipped = signature != target.material.getSignature();
+			final int index = target.material.index(pieceBitboards, whiteToMove, flipped);
+			return target.values[index];
+		}
+
+	}
+
+}
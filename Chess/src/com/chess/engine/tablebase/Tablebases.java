@@ -0,0 +1,194 @@
+package com.chess.engine.tablebase;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.Board;
+
+// probes the distance-to-mate tables of a directory, mapping each file the first time its material is seen.
+// a value is Draw, or plies to mate + 1: odd plies mean the side to move mates, even plies that it is mated
+public final class Tablebases implements Closeable {
+
+	public static final int Not_Found = -1;
+	public static final int Draw = 0;
+	public static final int Max_Plies = 252;
+
+	static final byte Invalid = (byte) 255;
+	// stalemates while a table is built, so later passes skip them
+	static final byte Draw_Final = (byte) 254;
+
+	private static final String Extension = ".dtm";
+	private static final int Magic = 0x44544D31;
+	private static final int Header_Size = 16;
+	private static final int Max_Pieces = 5;
+
+	private final Path directory;
+	private final List<FileChannel> channels = new ArrayList<>();
+	// by material signature, holding both colourings of each table; absent materials map to a sentinel
+	private final ConcurrentMap<Long, Mapping> mappings = new ConcurrentHashMap<>();
+
+	public Tablebases(final Path directory){
+		this.directory = directory;
+	}
+
+	// Not_Found when no table holds the position, or it has castling rights or an en passant capture
+	public int probe(final Board board){
+		if(board.getCastlingRights() != 0 || board.getEnPassantPawn() != null){
+			return Not_Found;
+		}
+		final long[] pieceBitboards = new long[BitBoard.Num_Piece_Bitboards];
+		int pieces = 0;
+		for(int pieceIndex = 0; pieceIndex < pieceBitboards.length; pieceIndex++){
+			pieceBitboards[pieceIndex] = board.getPieceBitboard(BitBoard.pieceTypeOf(pieceIndex), BitBoard.allianceOf(pieceIndex));
+			pieces += BitBoard.count(pieceBitboards[pieceIndex]);
+		}
+		if(pieces > Max_Pieces){
+			return Not_Found;
+		}
+		final Mapping mapping = mapping(Material.signature(pieceBitboards), board);
+		if(mapping == Mapping.Missing){
+			return Not_Found;
+		}
+		final boolean flipped = Material.signature(pieceBitboards) != mapping.material.getSignature();
+		final int index = mapping.material.index(pieceBitboards, board.currentPlayer().getAlliance().isWhite(), flipped);
+		final int value = mapping.values.get(Header_Size + index) & 0xFF;
+		return value == (Invalid & 0xFF) ? Not_Found : value;
+	}
+
+	public static boolean isWin(final int value){
+		return value > Draw && pliesToMate(value) % 2 == 1;
+	}
+
+	public static boolean isLoss(final int value){
+		return value > Draw && pliesToMate(value) % 2 == 0;
+	}
+
+	public static int pliesToMate(final int value){
+		return (value & 0xFF) - 1;
+	}
+
+	@Override
+	public void close() throws IOException{
+		synchronized(this.channels){
+			for(final FileChannel channel : this.channels){
+				channel.close();
+			}
+			this.channels.clear();
+		}
+		this.mappings.clear();
+	}
+
+	private Mapping mapping(final long signature, final Board board){
+		final Mapping mapping = this.mappings.get(signature);
+		if(mapping != null){
+			return mapping;
+		}
+		synchronized(this.channels){
+			final Mapping existing = this.mappings.get(signature);
+			if(existing != null){
+				return existing;
+			}
+			final Material material = Material.of(board);
+			final Path path = path(this.directory, material);
+			Mapping mapped = Mapping.Missing;
+			if(Files.exists(path)){
+				try{
+					final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+					this.channels.add(channel);
+					if(channel.size() != Header_Size + (long) material.size()){
+						throw new IOException(path + " is not a " + material + " table");
+					}
+					final MappedByteBuffer values = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+					checkHeader(values, material, path);
+					mapped = new Mapping(material, values);
+				} catch(final IOException e){
+					throw new RuntimeException("Could not map " + path, e);
+				}
+			}
+			this.mappings.put(material.getSignature(), mapped);
+			this.mappings.put(material.getFlippedSignature(), mapped);
+			return mapped;
+		}
+	}
+
+	static Path path(final Path directory, final Material material){
+		return directory.resolve(material.getName() + Extension);
+	}
+
+	static byte[] read(final Path path, final Material material) throws IOException{
+		try(final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+			final ByteBuffer header = ByteBuffer.allocate(Header_Size);
+			while(header.hasRemaining() && channel.read(header) >= 0){
+			}
+			header.flip();
+			checkHeader(header, material, path);
+			final ByteBuffer values = ByteBuffer.wrap(new byte[material.size()]);
+			while(values.hasRemaining() && channel.read(values) >= 0){
+			}
+			return values.array();
+		}
+	}
+
+	static void write(final Path path, final Material material, final byte[] values, final int bufferSize) throws IOException{
+		try(final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)){
+			final ByteBuffer header = ByteBuffer.allocate(Header_Size);
+			header.putInt(Magic).putInt(material.getPieceCount()).putLong(values.length).flip();
+			drain(header, channel);
+			for(int offset = 0; offset < values.length; offset += bufferSize){
+				drain(ByteBuffer.wrap(values, offset, Math.min(bufferSize, values.length - offset)), channel);
+			}
+		}
+	}
+
+	static boolean isDecisive(final byte value){
+		return value != Draw && value != Invalid && value != Draw_Final;
+	}
+
+	static boolean isWin(final byte value){
+		return pliesToMate(value) % 2 == 1;
+	}
+
+	static byte value(final int pliesToMate){
+		return (byte) (pliesToMate + 1);
+	}
+
+	private static void checkHeader(final ByteBuffer buffer, final Material material, final Path path) throws IOException{
+		if(buffer.limit() < Header_Size || buffer.getInt(0) != Magic || buffer.getInt(4) != material.getPieceCount() ||
+		   buffer.getLong(8) != material.size()){
+			throw new IOException(path + " is not a " + material + " table");
+		}
+	}
+
+	private static void drain(final ByteBuffer buffer, final FileChannel channel) throws IOException{
+		while(buffer.hasRemaining()){
+			channel.write(buffer);
+		}
+	}
+
+	private static final class Mapping {
+
+		static final Mapping Missing = new Mapping(null, null);
+
+		private final Material material;
+		private final ByteBuffer values;
+
+		Mapping(final Material material, final ByteBuffer values){
+			this.material = material;
+			this.values = values;
+		}
+
+	}
+
+}
@@ -0,0 +1,133 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+import com.chess.engine.board.Board;
+import com.chess.pgn.FenCodec.AsciiSequence;
+
+public final class EpdReader implements Closeable {
+
+	public static final int Default_Buffer_Size = 1 << 20;
+
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer;
+	private final AsciiSequence line = new AsciiSequence();
+	// start of the unread data in the buffer, which always holds [0, limit) in read mode
+	private int next;
+	private boolean endOfStream;
+	private long lineNumber;
+
+	public EpdReader(final Path path) throws IOException{
+		this(FileChannel.open(path, StandardOpenOption.READ), Default_Buffer_Size);
+	}
+
+	public EpdReader(final ReadableByteChannel channel, final int bufferSize){
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(bufferSize);
+		this.buffer.limit(0);
+	}
+
+	// moves to the next non-blank line, false once the input is exhausted
+	public boolean nextLine() throws IOException{
+		while(true){
+			final int limit = this.buffer.limit();
+			int i = this.next;
+			while(i < limit && this.buffer.get(i) != '\n'){
+				i++;
+			}
+			if(i < limit || (this.endOfStream && this.next < limit)){
+				final int lineStart = this.next;
+				this.next = i < limit ? i + 1 : limit;
+				this.lineNumber++;
+				if(setLine(lineStart, i)){
+					return true;
+				}
+				continue;
+			}
+			if(this.endOfStream){
+				return false;
+			}
+			fill();
+		}
+	}
+
+	// the current line without its terminator; the view is reused and only valid until the next call
+	public CharSequence line(){
+		return this.line;
+	}
+
+	public Board board(){
+		return FenCodec.parse(this.line, 0, this.line.length());
+	}
+
+	// EPD operations following the four position fields, e.g. "bm Nf3; id \"test 1\";"
+	public CharSequence operations(){
+		final int positionEnd = FenCodec.positionEnd(this.line, 0, this.line.length());
+		int start = positionEnd;
+		while(start < this.line.length() && this.line.charAt(start) == ' '){
+			start++;
+		}
+		return this.line.subSequence(start, this.line.length());
+	}
+
+	public long getLineNumber(){
+		return this.lineNumber;
+	}
+
+	// parses every remaining line and returns how many positions were read
+	public long readAll(final Consumer<? super Board> consumer) throws IOException{
+		long positions = 0;
+		while(nextLine()){
+			consumer.accept(board());
+			positions++;
+		}
+		return positions;
+	}
+
+	@Override
+	public void close() throws IOException{
+		this.channel.close();
+	}
+
+	private boolean setLine(final int lineStart, int lineEnd){
+		while(lineEnd > lineStart && isSpace(this.buffer.get(lineEnd - 1))){
+			lineEnd--;
+		}
+		int start = lineStart;
+		while(start < lineEnd && isSpace(this.buffer.get(start))){
+			start++;
+		}
+		this.line.reset(this.buffer, start, lineEnd - start);
+		return lineEnd > start;
+	}
+
+	// keeps the partial line at the front of the buffer and reads more behind it
+	private void fill() throws IOException{
+		this.buffer.position(this.next);
+		this.buffer.compact();
+		if(!this.buffer.hasRemaining()){
+			throw new IOException("EPD line " + (this.lineNumber + 1) + " is longer than the read buffer");
+		}
+		int read;
+		do{
+			read = this.channel.read(this.buffer);
+		} while(read == 0 && this.buffer.hasRemaining());
+		if(read < 0){
+			this.endOfStream = true;
+		}
+		this.buffer.flip();
+		this.next = 0;
+	}
+
+	private static boolean isSpace(final byte b){
+		return b == ' ' || b == '\t' || b == '\r';
+	}
+
+}
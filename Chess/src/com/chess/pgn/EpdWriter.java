@@ -0,0 +1,68 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.chess.engine.board.Board;
+
+public final class EpdWriter implements Closeable, Flushable {
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer;
+	private final StringBuilder scratch = new StringBuilder(128);
+
+	public EpdWriter(final Path path) throws IOException{
+		this(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING),
+			 EpdReader.Default_Buffer_Size);
+	}
+
+	public EpdWriter(final WritableByteChannel channel, final int bufferSize){
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(bufferSize);
+	}
+
+	public void write(final Board board) throws IOException{
+		write(board, null);
+	}
+
+	// one EPD line: the four position fields, then the operations if there are any
+	public void write(final Board board, final CharSequence operations) throws IOException{
+		this.scratch.setLength(0);
+		FenCodec.appendEpd(board, this.scratch);
+		if(operations != null && operations.length() > 0){
+			this.scratch.append(' ').append(operations);
+		}
+		this.scratch.append('\n');
+		for(int i = 0; i < this.scratch.length(); i++){
+			if(!this.buffer.hasRemaining()){
+				flush();
+			}
+			this.buffer.put((byte) this.scratch.charAt(i));
+		}
+	}
+
+	@Override
+	public void flush() throws IOException{
+		this.buffer.flip();
+		while(this.buffer.hasRemaining()){
+			this.channel.write(this.buffer);
+		}
+		this.buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException{
+		try{
+			flush();
+		} finally{
+			this.channel.close();
+		}
+	}
+
+}
@@ -0,0 +1,299 @@
+package com.chess.pgn;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Board.Builder;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.PieceUtils;
+
+public final class FenCodec {
+
+	private static final char[] Piece_Chars = {'P', 'N', 'B', 'R', 'Q', 'K', 'p', 'n', 'b', 'r', 'q', 'k'};
+	private static final char[] Castle_Chars = {'K', 'Q', 'k', 'q'};
+	private static final int[] Castle_Rights = {
+		BoardUtils.White_King_Side_Castle, BoardUtils.White_Queen_Side_Castle,
+		BoardUtils.Black_King_Side_Castle, BoardUtils.Black_Queen_Side_Castle
+	};
+	// the four fields FEN and EPD share: placement, side to move, castling, en passant
+	private static final int Position_Fields = 4;
+
+	private FenCodec(){
+		throw new RuntimeException("Not instantiable!!!");
+	}
+
+	public static Board parse(final CharSequence fen){
+		return parse(fen, 0, fen.length());
+	}
+
+	public static Board parse(final ByteBuffer buffer, final int start, final int end){
+		return parse(new AsciiSequence(buffer, start, end - start), 0, end - start);
+	}
+
+	// reads the position fields of a FEN or EPD record in [start, end); move counters and EPD operations are ignored
+	public static Board parse(final CharSequence text, final int start, final int end){
+		final int placementStart = skipSpaces(text, start, end);
+		final int placementEnd = fieldEnd(text, placementStart, end);
+		final int sideStart = skipSpaces(text, placementEnd, end);
+		final int sideEnd = fieldEnd(text, sideStart, end);
+		final int castleStart = skipSpaces(text, sideEnd, end);
+		final int castleEnd = fieldEnd(text, castleStart, end);
+		final int enPassantStart = skipSpaces(text, castleEnd, end);
+		final int enPassantEnd = fieldEnd(text, enPassantStart, end);
+		if(sideEnd - sideStart != 1){
+			throw invalid(text, start, end);
+		}
+		final Alliance moveMaker = parseMoveMaker(text.charAt(sideStart), text, start, end);
+		final int castlingRights = parseCastlingRights(text, castleStart, castleEnd, start, end);
+
+		final Builder builder = new Builder();
+		int tile = 0;
+		for(int i = placementStart; i < placementEnd; i++){
+			final char c = text.charAt(i);
+			if(c == '/'){
+				continue;
+			}
+			if(c >= '1' && c <= '8'){
+				tile += c - '0';
+				continue;
+			}
+			final int pieceIndex = pieceIndex(c);
+			if(pieceIndex < 0 || tile >= BoardUtils.Num_Tiles){
+				throw invalid(text, start, end);
+			}
+			final PieceType pieceType = BitBoard.pieceTypeOf(pieceIndex);
+			final Alliance alliance = BitBoard.allianceOf(pieceIndex);
+			builder.setPiece(PieceUtils.getPiece(pieceType, alliance, tile, isFirstMove(pieceType, alliance, tile, castlingRights)));
+			tile++;
+		}
+		if(tile != BoardUtils.Num_Tiles){
+			throw invalid(text, start, end);
+		}
+		builder.setMoveMaker(moveMaker);
+		if(enPassantEnd - enPassantStart == 2){
+			final int enPassantTile = coordinate(text.charAt(enPassantStart), text.charAt(enPassantStart + 1));
+			if(enPassantTile < 0){
+				throw invalid(text, start, end);
+			}
+			final Alliance pawnAlliance = moveMaker.isWhite() ? Alliance.Black : Alliance.White;
+			builder.setEnPassanPawn(PieceUtils.getMovedPawn(pawnAlliance,
+					enPassantTile + (pawnAlliance.getDirection() * BoardUtils.Num_Tiles_Per_Row)));
+		} else if(enPassantEnd - enPassantStart > 2 || (enPassantEnd - enPassantStart == 1 && text.charAt(enPassantStart) != '-')){
+			throw invalid(text, start, end);
+		}
+		return builder.build();
+	}
+
+	// index just past the four position fields, where the EPD operations or FEN move counters begin
+	public static int positionEnd(final CharSequence text, final int start, final int end){
+		int i = start;
+		for(int field = 0; field < Position_Fields; field++){
+			i = fieldEnd(text, skipSpaces(text, i, end), end);
+		}
+		return i;
+	}
+
+	public static String toFen(final Board board){
+		return appendFen(board, new StringBuilder(90)).toString();
+	}
+
+	public static StringBuilder appendFen(final Board board, final StringBuilder builder){
+		appendEpd(board, builder);
+		return builder.append(" 0 1");
+	}
+
+	public static StringBuilder appendEpd(final Board board, final StringBuilder builder){
+		int emptyTiles = 0;
+		for(int i = 0; i < BoardUtils.Num_Tiles; i++){
+			final Piece piece = board.getTile(i).getPiece();
+			if(piece != null){
+				if(emptyTiles > 0){
+					builder.append((char) ('0' + emptyTiles));
+					emptyTiles = 0;
+				}
+				builder.append(Piece_Chars[BitBoard.index(piece.getPieceType(), piece.getPieceAllance())]);
+			} else{
+				emptyTiles++;
+			}
+			if((i+1)%BoardUtils.Num_Tiles_Per_Row == 0){
+				if(emptyTiles > 0){
+					builder.append((char) ('0' + emptyTiles));
+					emptyTiles = 0;
+				}
+				if(i != BoardUtils.Num_Tiles - 1){
+					builder.append('/');
+				}
+			}
+		}
+		builder.append(' ').append(board.currentPlayer().getAlliance().isWhite() ? 'w' : 'b').append(' ');
+		final int castlingRights = board.getCastlingRights();
+		if(castlingRights == 0){
+			builder.append('-');
+		}
+		for(int i = 0; i < Castle_Rights.length; i++){
+			if((castlingRights & Castle_Rights[i]) != 0){
+				builder.append(Castle_Chars[i]);
+			}
+		}
+		builder.append(' ');
+		final Pawn enPassantPawn = board.getEnPassantPawn();
+		if(enPassantPawn == null){
+			return builder.append('-');
+		}
+		final int enPassantTile = enPassantPawn.getPiecePosition() - (enPassantPawn.getPieceAllance().getDirection() * BoardUtils.Num_Tiles_Per_Row);
+		return builder.append((char) ('a' + enPassantTile % BoardUtils.Num_Tiles_Per_Row))
+					  .append((char) ('8' - enPassantTile / BoardUtils.Num_Tiles_Per_Row));
+	}
+
+	private static boolean isFirstMove(final PieceType pieceType, final Alliance alliance, final int tile, final int castlingRights){
+		switch(pieceType){
+			case PAWN:
+				return alliance.isWhite() ? BoardUtils.Seventh_Row[tile] : BoardUtils.Second_Row[tile];
+			case KING:
+				return alliance.isWhite() ?
+					tile == 60 && (castlingRights & (BoardUtils.White_King_Side_Castle | BoardUtils.White_Queen_Side_Castle)) != 0 :
+					tile == 4 && (castlingRights & (BoardUtils.Black_King_Side_Castle | BoardUtils.Black_Queen_Side_Castle)) != 0;
+			case ROOK:
+				return alliance.isWhite() ?
+					(tile == 63 && (castlingRights & BoardUtils.White_King_Side_Castle) != 0) ||
+					(tile == 56 && (castlingRights & BoardUtils.White_Queen_Side_Castle) != 0) :
+					(tile == 7 && (castlingRights & BoardUtils.Black_King_Side_Castle) != 0) ||
+					(tile == 0 && (castlingRights & BoardUtils.Black_Queen_Side_Castle) != 0);
+			default:
+				return false;
+		}
+	}
+
+	private static int parseCastlingRights(final CharSequence text, final int castleStart, final int castleEnd,
+										   final int start, final int end){
+		if(castleEnd - castleStart == 1 && text.charAt(castleStart) == '-'){
+			return 0;
+		}
+		int castlingRights = 0;
+		for(int i = castleStart; i < castleEnd; i++){
+			final char c = text.charAt(i);
+			int right = -1;
+			for(int j = 0; j < Castle_Chars.length; j++){
+				if(Castle_Chars[j] == c){
+					right = Castle_Rights[j];
+				}
+			}
+			if(right < 0){
+				throw invalid(text, start, end);
+			}
+			castlingRights |= right;
+		}
+		return castlingRights;
+	}
+
+	private static Alliance parseMoveMaker(final char c, final CharSequence text, final int start, final int end){
+		if(c == 'w'){
+			return Alliance.White;
+		} else if(c == 'b'){
+			return Alliance.Black;
+		}
+		throw invalid(text, start, end);
+	}
+
+	private static int pieceIndex(final char c){
+		for(int i = 0; i < Piece_Chars.length; i++){
+			if(Piece_Chars[i] == c){
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// "e3" to tile 44, -1 when off the board
+	private static int coordinate(final char file, final char rank){
+		if(file < 'a' || file > 'h' || rank < '1' || rank > '8'){
+			return -1;
+		}
+		return ('8' - rank) * BoardUtils.Num_Tiles_Per_Row + (file - 'a');
+	}
+
+	private static int skipSpaces(final CharSequence text, int i, final int end){
+		while(i < end && isSpace(text.charAt(i))){
+			i++;
+		}
+		return i;
+	}
+
+	private static int fieldEnd(final CharSequence text, int i, final int end){
+		while(i < end && !isSpace(text.charAt(i))){
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean isSpace(final char c){
+		return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+	}
+
+	private static RuntimeException invalid(final CharSequence text, final int start, final int end){
+		return new RuntimeException("Invalid FEN string " + text.subSequence(start, end));
+	}
+
+	// read-only ASCII view of a byte buffer region, reused by the stream readers so no String is built per line
+	static final class AsciiSequence implements CharSequence {
+
+		private ByteBuffer buffer;
+		private int offset;
+		private int length;
+
+		AsciiSequence(){
+		}
+
+		AsciiSequence(final ByteBuffer buffer, final int offset, final int length){
+			reset(buffer, offset, length);
+		}
+
+		AsciiSequence reset(final ByteBuffer buffer, final int offset, final int length){
+			this.buffer = buffer;
+			this.offset = offset;
+			this.length = length;
+			return this;
+		}
+
+		@Override
+		public int length(){
+			return this.length;
+		}
+
+		@Override
+		public char charAt(final int index){
+			return (char) (this.buffer.get(this.offset + index) & 0xFF);
+		}
+
+		@Override
+		public CharSequence subSequence(final int start, final int end){
+			return new AsciiSequence(this.buffer, this.offset + start, end - start);
+		}
+
+		// the bytes in [start, end) as UTF-8, for text such as PGN tag values that may leave ASCII
+		String decode(final int start, final int end){
+			final byte[] bytes = new byte[end - start];
+			for(int i = 0; i < bytes.length; i++){
+				bytes[i] = this.buffer.get(this.offset + start + i);
+			}
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public String toString(){
+			final StringBuilder builder = new StringBuilder(this.length);
+			for(int i = 0; i < this.length; i++){
+				builder.append(charAt(i));
+			}
+			return builder.toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,19 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+
+public class FenUtilities {
+
+	private FenUtilities(){
+		throw new RuntimeException("Not instantiable!!!");
+	}
+
+	public static Board createGameFromFEN(final String fenString){
+		return FenCodec.parse(fenString);
+	}
+
+	public static String createFENFromGame(final Board board){
+		return FenCodec.toFen(board);
+	}
+
+}
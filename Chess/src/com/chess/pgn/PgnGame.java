@@ -0,0 +1,65 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MoveList;
+import com.google.common.collect.ImmutableMap;
+
+public final class PgnGame {
+
+	private final ImmutableMap<String, String> tags;
+	private final Board startBoard;
+	// MoveEncoding words rather than Move objects, which would keep every position of the game alive
+	private final MoveList moves;
+	private final Board finalBoard;
+	private final String result;
+	private final long offset;
+
+	PgnGame(final ImmutableMap<String, String> tags,
+			final Board startBoard,
+			final MoveList moves,
+			final Board finalBoard,
+			final String result,
+			final long offset){
+		this.tags = tags;
+		this.startBoard = startBoard;
+		this.moves = moves;
+		this.finalBoard = finalBoard;
+		this.result = result;
+		this.offset = offset;
+	}
+
+	public ImmutableMap<String, String> getTags(){
+		return this.tags;
+	}
+
+	public String getTag(final String name){
+		return this.tags.get(name);
+	}
+
+	public Board getStartBoard(){
+		return this.startBoard;
+	}
+
+	public MoveList getMoves(){
+		return this.moves;
+	}
+
+	public Board getFinalBoard(){
+		return this.finalBoard;
+	}
+
+	public String getResult(){
+		return this.result;
+	}
+
+	// byte offset of the game in its file; games reach the consumer out of order, this restores it
+	public long getOffset(){
+		return this.offset;
+	}
+
+	@Override
+	public String toString(){
+		return this.tags + " " + this.moves + " " + this.result;
+	}
+
+}
@@ -0,0 +1,223 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.chess.pgn.FenCodec.AsciiSequence;
+
+public final class PgnImporter implements Closeable {
+
+	public static final int Default_Queue_Capacity = 256;
+	// a mapping can not exceed 2GB, so larger archives are mapped window by window, each ending on a game boundary
+	static final long Mapping_Size = 1L << 30;
+	// games are handed to the pool in runs of about this many bytes
+	static final int Chunk_Size = 1 << 20;
+	private static final long Offer_Timeout_Millis = 50;
+	// queued after the last game; reference equality marks the end of an import
+	private static final PgnGame End_Of_Games = new PgnGame(null, null, null, null, null, -1);
+
+	private final ForkJoinPool pool;
+	private final int queueCapacity;
+	private final AtomicLong parseErrors = new AtomicLong();
+
+	public PgnImporter(){
+		this(Runtime.getRuntime().availableProcessors(), Default_Queue_Capacity);
+	}
+
+	public PgnImporter(final int parallelism, final int queueCapacity){
+		if(parallelism < 1 || queueCapacity < 1){
+			throw new IllegalArgumentException("Parallelism and queue capacity must be positive: " + parallelism + ", " + queueCapacity);
+		}
+		this.pool = new ForkJoinPool(parallelism);
+		this.queueCapacity = queueCapacity;
+	}
+
+	// parses every game of the file on the pool and hands them to the consumer on the calling thread as they finish,
+	// in no particular order; workers wait while the queue is full, so memory stays bounded whatever the file size
+	public long importGames(final Path path, final Consumer<? super PgnGame> consumer) throws IOException{
+		final Ingestion ingestion = new Ingestion(path, this.queueCapacity);
+		final ForkJoinTask<?> driver = this.pool.submit(ingestion::run);
+		long games = 0;
+		try{
+			while(true){
+				final PgnGame game = ingestion.games.take();
+				if(game == End_Of_Games){
+					break;
+				}
+				consumer.accept(game);
+				games++;
+			}
+		} catch(final InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new IOException("PGN import of " + path + " was interrupted", e);
+		} finally{
+			ingestion.cancelled = true;
+			driver.quietlyJoin();
+		}
+		if(ingestion.failure instanceof IOException){
+			throw (IOException) ingestion.failure;
+		} else if(ingestion.failure != null){
+			throw new RuntimeException("PGN import of " + path + " failed", ingestion.failure);
+		}
+		return games;
+	}
+
+	// games that did not parse, e.g. an illegal or ambiguous SAN move, a malformed tag or a comment left open; they
+	// are dropped rather than failing the import
+	public long getParseErrors(){
+		return this.parseErrors.get();
+	}
+
+	@Override
+	public void close(){
+		this.pool.shutdownNow();
+	}
+
+	private final class Ingestion {
+
+		private final Path path;
+		private final BlockingQueue<PgnGame> games;
+		private volatile boolean cancelled;
+		private volatile Throwable failure;
+
+		Ingestion(final Path path, final int queueCapacity){
+			this.path = path;
+			this.games = new ArrayBlockingQueue<>(queueCapacity);
+		}
+
+		void run(){
+			try(final FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)){
+				final long size = channel.size();
+				long position = skipByteOrderMark(channel);
+				while(position < size && !this.cancelled){
+					final long length = Math.min(Mapping_Size, size - position);
+					final MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+					final AsciiSequence text = new AsciiSequence(mapping, 0, (int) length);
+					final int regionEnd = forkChunks(text, position, (int) length, position + length == size);
+					if(regionEnd == 0 && !this.cancelled){
+						throw new IOException("PGN game at offset " + position + " is larger than " + Mapping_Size + " bytes");
+					}
+					position += regionEnd;
+				}
+			} catch(final IOException | RuntimeException e){
+				this.failure = e;
+			} finally{
+				deliver(End_Of_Games);
+			}
+		}
+
+		// walks the window game by game, tracking comments and tag values, so every chunk starts on a real game rather
+		// than on a line inside a comment that only looks like one. chunks are parsed on the pool while the walk goes on.
+		// returns where the window's last whole game ends, the start of the game the window cuts short unless it is the
+		// last one of the file
+		private int forkChunks(final AsciiSequence text, final long mappingOffset, final int length, final boolean lastWindow){
+			final List<ChunkTask> chunks = new ArrayList<>();
+			int chunkStart = 0;
+			int gameStart = 0;
+			while(gameStart < length && !this.cancelled){
+				final int gameEnd = PgnParser.gameEnd(text, gameStart, length);
+				if(gameEnd == length && !lastWindow){
+					break;
+				}
+				gameStart = gameEnd;
+				if(gameStart - chunkStart >= Chunk_Size || gameStart == length){
+					chunks.add(new ChunkTask(this, text, mappingOffset, chunkStart, gameStart));
+					chunks.get(chunks.size() - 1).fork();
+					chunkStart = gameStart;
+				}
+			}
+			if(chunkStart < gameStart){
+				chunks.add(new ChunkTask(this, text, mappingOffset, chunkStart, gameStart));
+				chunks.get(chunks.size() - 1).fork();
+			}
+			for(final ChunkTask chunk : chunks){
+				chunk.join();
+			}
+			return gameStart;
+		}
+
+		// blocks while the consumer is behind, giving up once the import is cancelled
+		void deliver(final PgnGame game){
+			try{
+				while(!this.cancelled || game == End_Of_Games){
+					if(this.games.offer(game, Offer_Timeout_Millis, TimeUnit.MILLISECONDS) || this.cancelled){
+						return;
+					}
+				}
+			} catch(final InterruptedException e){
+				this.cancelled = true;
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private long skipByteOrderMark(final FileChannel channel) throws IOException{
+			if(channel.size() < 3){
+				return 0;
+			}
+			final MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, 3);
+			return (head.get(0) & 0xFF) == 0xEF && (head.get(1) & 0xFF) == 0xBB && (head.get(2) & 0xFF) == 0xBF ? 3 : 0;
+		}
+
+	}
+
+	// a run of whole games, parsed one after the other
+	private final class ChunkTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Ingestion ingestion;
+		private final AsciiSequence text;
+		private final long mappingOffset;
+		private final int start;
+		private final int end;
+
+		ChunkTask(final Ingestion ingestion, final AsciiSequence text, final long mappingOffset, final int start, final int end){
+			this.ingestion = ingestion;
+			this.text = text;
+			this.mappingOffset = mappingOffset;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute(){
+			int gameStart = this.start;
+			while(gameStart < this.end && !this.ingestion.cancelled){
+				final int gameEnd = PgnParser.gameEnd(this.text, gameStart, this.end);
+				if(!isBlank(gameStart, gameEnd)){
+					try{
+						this.ingestion.deliver(PgnParser.parseGame(this.text, gameStart, gameEnd, this.mappingOffset + gameStart));
+					} catch(final RuntimeException e){
+						PgnImporter.this.parseErrors.incrementAndGet();
+					}
+				}
+				gameStart = gameEnd;
+			}
+		}
+
+		private boolean isBlank(final int from, final int to){
+			for(int i = from; i < to; i++){
+				if(this.text.charAt(i) > ' '){
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
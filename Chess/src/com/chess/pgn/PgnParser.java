@@ -0,0 +1,420 @@
+package com.chess.pgn;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MoveIndex;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.player.MoveTransition;
+import com.chess.pgn.FenCodec.AsciiSequence;
+import com.google.common.collect.ImmutableMap;
+
+public final class PgnParser {
+
+	public static final String White_Wins = "1-0";
+	public static final String Black_Wins = "0-1";
+	public static final String Draw = "1/2-1/2";
+	public static final String Unknown_Result = "*";
+
+	// boards are immutable, so every game without a FEN tag starts from the same instance
+	private static final Board Standard_Board = Board.createStandardBoard();
+	private static final int Average_Game_Length = 96;
+
+	private PgnParser(){
+		throw new RuntimeException("Not instantiable!!!");
+	}
+
+	public static PgnGame parseGame(final CharSequence text){
+		return parseGame(text, 0, text.length(), 0);
+	}
+
+	// one game in [start, end): the tag pairs, then the movetext with comments, variations and NAGs skipped
+	public static PgnGame parseGame(final CharSequence text, final int start, final int end, final long offset){
+		final ImmutableMap.Builder<String, String> tags = ImmutableMap.builder();
+		int i = skipSpaces(text, start, end);
+		while(i < end && text.charAt(i) == '['){
+			i = parseTag(text, i, end, tags);
+			i = skipSpaces(text, i, end);
+		}
+		final ImmutableMap<String, String> tagMap = tags.buildKeepingLast();
+		final String fen = tagMap.get("FEN");
+		final Board startBoard = fen != null ? FenCodec.parse(fen) : Standard_Board;
+		Board board = startBoard;
+		final MoveList moves = new MoveList(Average_Game_Length);
+		String result = Unknown_Result;
+		while(i < end){
+			final char c = text.charAt(i);
+			if(isSpace(c)){
+				i++;
+			} else if(c == '{'){
+				i = skipComment(text, i, end);
+			} else if(c == ';' || (c == '%' && (i == start || text.charAt(i - 1) == '\n'))){
+				i = skipPast(text, i, end, '\n');
+			} else if(c == '('){
+				i = skipVariation(text, i, end);
+			} else if(c == '$'){
+				i = skipDigits(text, i + 1, end);
+			} else if(c == '*'){
+				result = Unknown_Result;
+				i++;
+			} else if(isMoveNumber(text, i, end)){
+				i = skipDigits(text, i, end);
+				while(i < end && text.charAt(i) == '.'){
+					i++;
+				}
+			} else{
+				final int tokenEnd = tokenEnd(text, i, end);
+				final String tokenResult = result(text, i, tokenEnd);
+				if(tokenResult != null){
+					result = tokenResult;
+				} else{
+					final Move move = resolveMove(board, text, i, tokenEnd);
+					final MoveTransition transition = board.currentPlayer().makeMove(move);
+					if(!transition.getMoveStatus().isDone()){
+						throw invalidMove(text, i, tokenEnd);
+					}
+					moves.add(MoveEncoding.encode(move));
+					board = transition.getTransitionBoard();
+				}
+				i = tokenEnd;
+			}
+		}
+		return new PgnGame(tagMap, startBoard, moves, board, result, offset);
+	}
+
+	public static Move resolveMove(final Board board, final String san){
+		return resolveMove(board, san, 0, san.length());
+	}
+
+	// matches a SAN token such as "Nbxd7+", "exd8=Q" or "O-O-O" against the side to move's legal moves
+	public static Move resolveMove(final Board board, final CharSequence text, final int start, int end){
+		while(end > start && isAnnotation(text.charAt(end - 1))){
+			end--;
+		}
+		final MoveIndex moveIndex = board.currentPlayer().getMoveIndex();
+		final Alliance alliance = board.currentPlayer().getAlliance();
+		if(isCastle(text, start, end)){
+			final int kingTile = board.currentPlayer().getPlayerKing().getPiecePosition();
+			final Move move = moveIndex.get(kingTile, end - start == 3 ? kingTile + 2 : kingTile - 2);
+			if(!move.isCastlingMove()){
+				throw invalidMove(text, start, end);
+			}
+			return move;
+		}
+		int promotionType = -1;
+		if(end - start > 2 && pieceType(text.charAt(end - 1)) != null){
+			promotionType = pieceType(text.charAt(end - 1)).ordinal();
+			end--;
+			if(text.charAt(end - 1) == '='){
+				end--;
+			}
+		}
+		if(end - start < 2){
+			throw invalidMove(text, start, end);
+		}
+		final int destination = coordinate(text.charAt(end - 2), text.charAt(end - 1));
+		final PieceType movedType = pieceType(text.charAt(start));
+		final PieceType pieceType = movedType != null ? movedType : PieceType.PAWN;
+		if(destination < 0 || pieceType.isKing() && promotionType >= 0){
+			throw invalidMove(text, start, end);
+		}
+		// whatever sits between the piece letter and the destination: a disambiguating file and/or rank, and 'x'
+		long candidates = board.getPieceBitboard(pieceType, alliance);
+		for(int i = movedType != null ? start + 1 : start; i < end - 2; i++){
+			final char c = text.charAt(i);
+			if(c >= 'a' && c <= 'h'){
+				candidates &= fileMask(c - 'a');
+			} else if(c >= '1' && c <= '8'){
+				candidates &= rankMask('8' - c);
+			} else if(c != 'x' && c != ':'){
+				throw invalidMove(text, start, end);
+			}
+		}
+		int from = -1;
+		for(long remaining = candidates; remaining != BitBoard.Empty; remaining = BitBoard.clearFirst(remaining)){
+			final int tile = BitBoard.firstSquare(remaining);
+			if(moveIndex.contains(tile, destination)){
+				if(from >= 0){
+					throw new RuntimeException("Ambiguous SAN move " + text.subSequence(start, end));
+				}
+				from = tile;
+			}
+		}
+		if(from < 0){
+			throw invalidMove(text, start, end);
+		}
+		final Move move = promotionType >= 0 ? moveIndex.get(from, destination, promotionType) : moveIndex.get(from, destination);
+		if(move == Move.NULL_MOVE){
+			throw invalidMove(text, start, end);
+		}
+		return move;
+	}
+
+	// start of the game after the one at gameStart, end when there is none. the scan starts outside any comment, so
+	// it passes over brace and semicolon comments and tag values, where wrapped lines may begin with a bracket
+	static int gameEnd(final CharSequence text, final int gameStart, final int end){
+		final int first = gameStart < end && text.charAt(gameStart) == '[' ? skipTag(text, gameStart, end) : gameStart + 1;
+		for(int i = first; i < end; i++){
+			final char c = text.charAt(i);
+			if(c == '{'){
+				i = skipPast(text, i, end, '}') - 1;
+			} else if(c == ';'){
+				i = skipPast(text, i, end, '\n') - 1;
+			} else if(c == '['){
+				if(isGameStart(text, i, gameStart, end)){
+					return i;
+				}
+				i = skipTag(text, i, end) - 1;
+			}
+		}
+		return end;
+	}
+
+	// a tag such as [Event " at the start of a line whose previous non-blank line is not a tag line, so the first tag
+	// of a game; clock annotations like [%clk 0:01:00] wrapped onto a line of their own do not match
+	private static boolean isGameStart(final CharSequence text, final int i, final int start, final int end){
+		if(i == start){
+			return true;
+		}
+		if(text.charAt(i - 1) != '\n' || !isTagStart(text, i, end)){
+			return false;
+		}
+		int j = i - 1;
+		while(j > start && isSpace(text.charAt(j - 1))){
+			j--;
+		}
+		if(j == start){
+			return true;
+		}
+		final char lineLast = text.charAt(j - 1);
+		while(j > start && text.charAt(j - 1) != '\n'){
+			j--;
+		}
+		final int lineStart = skipSpaces(text, j, i);
+		return lineLast != ']' || text.charAt(lineStart) != '[' || !isTagStart(text, lineStart, end);
+	}
+
+	// an opening bracket, a tag name and the quote opening its value
+	private static boolean isTagStart(final CharSequence text, final int i, final int end){
+		int j = i + 1;
+		while(j < end && isTagNameChar(text.charAt(j))){
+			j++;
+		}
+		if(j == i + 1){
+			return false;
+		}
+		final int valueStart = skipSpaces(text, j, end);
+		return valueStart > j && valueStart < end && text.charAt(valueStart) == '"';
+	}
+
+	private static boolean isTagNameChar(final char c){
+		return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_';
+	}
+
+	// past the closing bracket, skipping the quoted value with its escapes
+	private static int skipTag(final CharSequence text, int i, final int end){
+		boolean quoted = false;
+		for(i++; i < end; i++){
+			final char c = text.charAt(i);
+			if(quoted && c == '\\'){
+				i++;
+			} else if(c == '"'){
+				quoted = !quoted;
+			} else if(!quoted && c == ']'){
+				return i + 1;
+			}
+		}
+		return end;
+	}
+
+	private static int parseTag(final CharSequence text, final int start, final int end,
+								final ImmutableMap.Builder<String, String> tags){
+		final int nameStart = skipSpaces(text, start + 1, end);
+		int i = nameStart;
+		while(i < end && !isSpace(text.charAt(i)) && text.charAt(i) != '"' && text.charAt(i) != ']'){
+			i++;
+		}
+		final int nameEnd = i;
+		i = skipSpaces(text, i, end);
+		if(i >= end || text.charAt(i) != '"'){
+			throw invalidTag(text, start, end);
+		}
+		final int valueStart = ++i;
+		boolean escaped = false;
+		while(i < end && text.charAt(i) != '"'){
+			if(text.charAt(i) == '\\'){
+				escaped = true;
+				i++;
+			}
+			i++;
+		}
+		if(i >= end){
+			throw invalidTag(text, start, end);
+		}
+		String value = decode(text, valueStart, i);
+		if(escaped){
+			value = value.replace("\\\"", "\"").replace("\\\\", "\\");
+		}
+		tags.put(decode(text, nameStart, nameEnd), value);
+		return skipPast(text, i, end, ']');
+	}
+
+	// tag values are UTF-8 in practice; a byte view is decoded as such rather than char by char
+	private static String decode(final CharSequence text, final int start, final int end){
+		if(text instanceof AsciiSequence){
+			return ((AsciiSequence) text).decode(start, end);
+		}
+		return text.subSequence(start, end).toString();
+	}
+
+	private static String result(final CharSequence text, final int start, final int end){
+		if(matches(text, start, end, White_Wins)){
+			return White_Wins;
+		} else if(matches(text, start, end, Black_Wins)){
+			return Black_Wins;
+		} else if(matches(text, start, end, Draw)){
+			return Draw;
+		}
+		return null;
+	}
+
+	// "12." or "12..."; a bare number is a result or a castle written with zeros
+	private static boolean isMoveNumber(final CharSequence text, final int start, final int end){
+		final int digitsEnd = skipDigits(text, start, end);
+		return digitsEnd > start && digitsEnd < end && text.charAt(digitsEnd) == '.';
+	}
+
+	private static boolean isCastle(final CharSequence text, final int start, final int end){
+		final char castle = text.charAt(start);
+		if(castle != 'O' && castle != '0' || (end - start != 3 && end - start != 5)){
+			return false;
+		}
+		for(int i = start; i < end; i++){
+			if(text.charAt(i) != ((i - start) % 2 == 0 ? castle : '-')){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static PieceType pieceType(final char c){
+		switch(c){
+			case 'N':
+				return PieceType.KNIGHT;
+			case 'B':
+				return PieceType.BISHOP;
+			case 'R':
+				return PieceType.ROOK;
+			case 'Q':
+				return PieceType.QUEEN;
+			case 'K':
+				return PieceType.KING;
+			default:
+				return null;
+		}
+	}
+
+	private static long fileMask(final int file){
+		return 0x0101010101010101L << file;
+	}
+
+	private static long rankMask(final int row){
+		return 0xFFL << (row * BoardUtils.Num_Tiles_Per_Row);
+	}
+
+	private static int coordinate(final char file, final char rank){
+		if(file < 'a' || file > 'h' || rank < '1' || rank > '8'){
+			return -1;
+		}
+		return ('8' - rank) * BoardUtils.Num_Tiles_Per_Row + (file - 'a');
+	}
+
+	private static boolean matches(final CharSequence text, final int start, final int end, final String token){
+		if(end - start != token.length()){
+			return false;
+		}
+		for(int i = 0; i < token.length(); i++){
+			if(text.charAt(start + i) != token.charAt(i)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int skipVariation(final CharSequence text, int i, final int end){
+		int depth = 0;
+		for(; i < end; i++){
+			final char c = text.charAt(i);
+			if(c == '{'){
+				i = skipComment(text, i, end) - 1;
+			} else if(c == '('){
+				depth++;
+			} else if(c == ')' && --depth == 0){
+				return i + 1;
+			}
+		}
+		return end;
+	}
+
+	// a comment still open at the end of the game means the game was cut at a false boundary or the file is damaged
+	private static int skipComment(final CharSequence text, final int i, final int end){
+		final int commentEnd = skipPast(text, i, end, '}');
+		if(text.charAt(commentEnd - 1) != '}'){
+			throw new RuntimeException("Unterminated PGN comment " + text.subSequence(i, Math.min(end, i + 80)));
+		}
+		return commentEnd;
+	}
+
+	private static int skipPast(final CharSequence text, int i, final int end, final char terminator){
+		while(i < end && text.charAt(i) != terminator){
+			i++;
+		}
+		return i < end ? i + 1 : end;
+	}
+
+	private static int skipDigits(final CharSequence text, int i, final int end){
+		while(i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9'){
+			i++;
+		}
+		return i;
+	}
+
+	private static int skipSpaces(final CharSequence text, int i, final int end){
+		while(i < end && isSpace(text.charAt(i))){
+			i++;
+		}
+		return i;
+	}
+
+	private static int tokenEnd(final CharSequence text, int i, final int end){
+		while(i < end){
+			final char c = text.charAt(i);
+			if(isSpace(c) || c == '{' || c == '(' || c == ')' || c == ';' || c == '$'){
+				break;
+			}
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean isAnnotation(final char c){
+		return c == '+' || c == '#' || c == '!' || c == '?';
+	}
+
+	private static boolean isSpace(final char c){
+		return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+	}
+
+	private static RuntimeException invalidMove(final CharSequence text, final int start, final int end){
+		return new RuntimeException("Invalid SAN move " + text.subSequence(start, end));
+	}
+
+	private static RuntimeException invalidTag(final CharSequence text, final int start, final int end){
+		return new RuntimeException("Invalid PGN tag " + text.subSequence(start, Math.min(end, start + 80)));
+	}
+
+}
@@ -0,0 +1,181 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.google.common.collect.ImmutableList;
+
+// a Polyglot .bin book: 16-byte big-endian entries of key, move, weight and learn data, sorted by key
+public final class PolyglotBook implements Closeable {
+
+	static final int Entry_Size = 16;
+	private static final int Move_Offset = 8;
+	private static final int Weight_Offset = 10;
+	// Polyglot promotion codes 1-4 are knight, bishop, rook, queen
+	private static final PieceType[] Promotion_Types = {null, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN};
+
+	private final FileChannel channel;
+	private final MappedByteBuffer entries;
+	private final int size;
+	private final PolyglotKeys keys;
+
+	private PolyglotBook(final FileChannel channel, final PolyglotKeys keys) throws IOException{
+		final long bytes = channel.size();
+		if(bytes % Entry_Size != 0 || bytes > Integer.MAX_VALUE){
+			channel.close();
+			throw new IOException("Not a Polyglot book of " + bytes + " bytes");
+		}
+		this.channel = channel;
+		this.entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+		this.size = (int) (bytes / Entry_Size);
+		this.keys = keys;
+	}
+
+	public static PolyglotBook open(final Path path) throws IOException{
+		return open(path, PolyglotKeys.standard());
+	}
+
+	public static PolyglotBook open(final Path path, final PolyglotKeys keys) throws IOException{
+		return new PolyglotBook(FileChannel.open(path, StandardOpenOption.READ), keys);
+	}
+
+	// book moves that are legal on the board, by descending weight
+	public List<BookMove> getMoves(final Board board){
+		final long key = this.keys.hash(board);
+		final List<BookMove> moves = new ArrayList<>();
+		for(int i = firstEntry(key); i < this.size && keyAt(i) == key; i++){
+			final Move move = toMove(board, this.entries.getShort(i * Entry_Size + Move_Offset) & 0xFFFF);
+			final int weight = this.entries.getShort(i * Entry_Size + Weight_Offset) & 0xFFFF;
+			if(move != Move.NULL_MOVE && weight > 0){
+				moves.add(new BookMove(move, weight));
+			}
+		}
+		moves.sort((first, second) -> Integer.compare(second.getWeight(), first.getWeight()));
+		return ImmutableList.copyOf(moves);
+	}
+
+	// a book move drawn with probability proportional to its weight, NULL_MOVE when the position is not in the book
+	public Move selectMove(final Board board, final Random random){
+		final List<BookMove> moves = getMoves(board);
+		int totalWeight = 0;
+		for(final BookMove bookMove : moves){
+			totalWeight += bookMove.getWeight();
+		}
+		if(totalWeight == 0){
+			return Move.NULL_MOVE;
+		}
+		int pick = random.nextInt(totalWeight);
+		for(final BookMove bookMove : moves){
+			pick -= bookMove.getWeight();
+			if(pick < 0){
+				return bookMove.getMove();
+			}
+		}
+		return Move.NULL_MOVE;
+	}
+
+	public int size(){
+		return this.size;
+	}
+
+	@Override
+	public void close() throws IOException{
+		this.channel.close();
+	}
+
+	// the board's move for a Polyglot move word; castling is written as the king taking its own rook
+	static Move toMove(final Board board, final int polyglotMove){
+		final int destination = PolyglotKeys.tile(polyglotMove & 0x3F);
+		final int current = PolyglotKeys.tile((polyglotMove >>> 6) & 0x3F);
+		final int promotion = (polyglotMove >>> 12) & 0x7;
+		if(promotion >= Promotion_Types.length){
+			return Move.NULL_MOVE;
+		}
+		final int promotionType = promotion == 0 ? -1 : Promotion_Types[promotion].ordinal();
+		final Move move = Move.MoveFactory.createMove(board, current, destination, promotionType);
+		if(move != Move.NULL_MOVE || !isKingOnCastleTile(board, current)){
+			return move;
+		}
+		final Move castle = Move.MoveFactory.createMove(board, current, destination > current ? current + 2 : current - 2);
+		return castle.isCastlingMove() ? castle : Move.NULL_MOVE;
+	}
+
+	static int toPolyglotMove(final Move move){
+		int destination = move.getDestinationCoordinate();
+		if(move.isCastlingMove()){
+			destination = destination > move.getCurrentCoordinate() ? destination + 1 : destination - 2;
+		}
+		int polyglotMove = PolyglotKeys.square(destination) | (PolyglotKeys.square(move.getCurrentCoordinate()) << 6);
+		if(move instanceof PawnPromotion){
+			final PieceType promotionType = ((PawnPromotion) move).getPromotionPiece().getPieceType();
+			for(int i = 1; i < Promotion_Types.length; i++){
+				if(Promotion_Types[i] == promotionType){
+					polyglotMove |= i << 12;
+				}
+			}
+		}
+		return polyglotMove;
+	}
+
+	private static boolean isKingOnCastleTile(final Board board, final int tile){
+		return (tile == 60 || tile == 4) && board.isTileOccupied(tile) && board.getTile(tile).getPiece().getPieceType().isKing();
+	}
+
+	private long keyAt(final int index){
+		return this.entries.getLong(index * Entry_Size);
+	}
+
+	// keys compare unsigned, as Polyglot sorts them
+	private int firstEntry(final long key){
+		int low = 0;
+		int high = this.size;
+		while(low < high){
+			final int middle = (low + high) >>> 1;
+			if(Long.compareUnsigned(keyAt(middle), key) < 0){
+				low = middle + 1;
+			} else{
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	public static final class BookMove {
+
+		private final Move move;
+		private final int weight;
+
+		BookMove(final Move move, final int weight){
+			this.move = move;
+			this.weight = weight;
+		}
+
+		public Move getMove(){
+			return this.move;
+		}
+
+		public int getWeight(){
+			return this.weight;
+		}
+
+		@Override
+		public String toString(){
+			return BoardUtils.getPositionAtCoordinate(this.move.getCurrentCoordinate()) +
+				   BoardUtils.getPositionAtCoordinate(this.move.getDestinationCoordinate()) + " " + this.weight;
+		}
+
+	}
+
+}
@@ -0,0 +1,203 @@
+package com.chess.pgn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveList;
+
+// collects (position, move) statistics over the opening plies of a game collection and writes them as a Polyglot book
+public final class PolyglotBookBuilder {
+
+	public static final int Default_Max_Ply = 24;
+
+	private static final int Initial_Capacity = 1 << 16;
+	private static final int Max_Weight = 0xFFFF;
+	private static final int Buffered_Entries = 1 << 12;
+	// Polyglot scoring for the side that played the move
+	private static final int Win_Score = 2;
+	private static final int Draw_Score = 1;
+
+	private final PolyglotKeys keys;
+	private final int maxPly;
+	// parallel arrays of entries, merged by (key, move) whenever they fill up
+	private long[] entryKeys = new long[Initial_Capacity];
+	private int[] entryMoves = new int[Initial_Capacity];
+	private long[] entryWeights = new long[Initial_Capacity];
+	private int size;
+
+	public PolyglotBookBuilder(){
+		this(PolyglotKeys.standard(), Default_Max_Ply);
+	}
+
+	public PolyglotBookBuilder(final PolyglotKeys keys){
+		this(keys, Default_Max_Ply);
+	}
+
+	public PolyglotBookBuilder(final PolyglotKeys keys, final int maxPly){
+		this.keys = keys;
+		this.maxPly = maxPly;
+	}
+
+	public void addGame(final PgnGame game){
+		final int whiteScore = score(game.getResult(), PgnParser.White_Wins);
+		final int blackScore = score(game.getResult(), PgnParser.Black_Wins);
+		if(whiteScore < 0){
+			return;
+		}
+		final MoveList moves = game.getMoves();
+		Board board = game.getStartBoard();
+		for(int ply = 0; ply < Math.min(this.maxPly, moves.size()); ply++){
+			final Move move = Move.MoveFactory.createMove(board, moves.get(ply));
+			if(move == Move.NULL_MOVE){
+				return;
+			}
+			final int score = board.currentPlayer().getAlliance().isWhite() ? whiteScore : blackScore;
+			add(this.keys.hash(board), PolyglotBook.toPolyglotMove(move), score);
+			board = move.execute();
+		}
+	}
+
+	public long addGames(final Path pgn, final PgnImporter importer) throws IOException{
+		return importer.importGames(pgn, this::addGame);
+	}
+
+	// writes the book sorted by key and returns its number of entries
+	public int write(final Path path) throws IOException{
+		compact();
+		long maxWeight = 0;
+		for(int i = 0; i < this.size; i++){
+			maxWeight = Math.max(maxWeight, this.entryWeights[i]);
+		}
+		final double scale = maxWeight > Max_Weight ? (double) Max_Weight / maxWeight : 1.0;
+		int written = 0;
+		try(final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)){
+			final ByteBuffer buffer = ByteBuffer.allocateDirect(Buffered_Entries * PolyglotBook.Entry_Size);
+			for(int i = 0; i < this.size; i++){
+				final int weight = (int) (this.entryWeights[i] * scale);
+				if(weight == 0){
+					continue;
+				}
+				if(!buffer.hasRemaining()){
+					drain(buffer, channel);
+				}
+				buffer.putLong(this.entryKeys[i]).putShort((short) this.entryMoves[i]).putShort((short) weight).putInt(0);
+				written++;
+			}
+			drain(buffer, channel);
+		}
+		return written;
+	}
+
+	public int size(){
+		compact();
+		return this.size;
+	}
+
+	private void add(final long key, final int move, final int score){
+		if(this.size == this.entryKeys.length){
+			compact();
+			if(this.size > this.entryKeys.length / 2){
+				grow();
+			}
+		}
+		this.entryKeys[this.size] = key;
+		this.entryMoves[this.size] = move;
+		this.entryWeights[this.size] = score;
+		this.size++;
+	}
+
+	// 2, 1 or 0 for the side whose win is winningResult, -1 for a game without a result
+	private static int score(final String result, final String winningResult){
+		if(PgnParser.Draw.equals(result)){
+			return Draw_Score;
+		} else if(PgnParser.White_Wins.equals(result) || PgnParser.Black_Wins.equals(result)){
+			return winningResult.equals(result) ? Win_Score : 0;
+		}
+		return -1;
+	}
+
+	private void compact(){
+		sort(0, this.size - 1);
+		int merged = 0;
+		for(int i = 0; i < this.size; i++){
+			if(merged > 0 && this.entryKeys[merged - 1] == this.entryKeys[i] && this.entryMoves[merged - 1] == this.entryMoves[i]){
+				this.entryWeights[merged - 1] += this.entryWeights[i];
+			} else{
+				this.entryKeys[merged] = this.entryKeys[i];
+				this.entryMoves[merged] = this.entryMoves[i];
+				this.entryWeights[merged] = this.entryWeights[i];
+				merged++;
+			}
+		}
+		this.size = merged;
+	}
+
+	private void grow(){
+		final int capacity = this.entryKeys.length * 2;
+		this.entryKeys = Arrays.copyOf(this.entryKeys, capacity);
+		this.entryMoves = Arrays.copyOf(this.entryMoves, capacity);
+		this.entryWeights = Arrays.copyOf(this.entryWeights, capacity);
+	}
+
+	// quicksort of the parallel arrays by unsigned key, then move
+	private void sort(int low, int high){
+		while(low < high){
+			final int middle = (low + high) >>> 1;
+			final long pivotKey = this.entryKeys[middle];
+			final int pivotMove = this.entryMoves[middle];
+			int i = low;
+			int j = high;
+			while(i <= j){
+				while(compare(i, pivotKey, pivotMove) < 0){
+					i++;
+				}
+				while(compare(j, pivotKey, pivotMove) > 0){
+					j--;
+				}
+				if(i <= j){
+					swap(i++, j--);
+				}
+			}
+			if(j - low < high - i){
+				sort(low, j);
+				low = i;
+			} else{
+				sort(i, high);
+				high = j;
+			}
+		}
+	}
+
+	private int compare(final int index, final long key, final int move){
+		final int byKey = Long.compareUnsigned(this.entryKeys[index], key);
+		return byKey != 0 ? byKey : Integer.compare(this.entryMoves[index], move);
+	}
+
+	private void swap(final int first, final int second){
+		final long key = this.entryKeys[first];
+		this.entryKeys[first] = this.entryKeys[second];
+		this.entryKeys[second] = key;
+		final int move = this.entryMoves[first];
+		this.entryMoves[first] = this.entryMoves[second];
+		this.entryMoves[second] = move;
+		final long weight = this.entryWeights[first];
+		this.entryWeights[first] = this.entryWeights[second];
+		this.entryWeights[second] = weight;
+	}
+
+	private static void drain(final ByteBuffer buffer, final FileChannel channel) throws IOException{
+		buffer.flip();
+		while(buffer.hasRemaining()){
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+}
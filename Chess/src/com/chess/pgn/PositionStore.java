@@ -0,0 +1,162 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.board.PositionEncoding;
+
+// a file of PositionEncoding records, mapped into memory so the OS page cache holds it rather than the heap
+public final class PositionStore implements Closeable {
+
+	// records per mapping; a mapping can not exceed 2GB and records never straddle two of them
+	static final int Segment_Shift = 25;
+	private static final long Segment_Records = 1L << Segment_Shift;
+	private static final int Insertion_Sort_Threshold = 16;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer[] segments;
+	private final long size;
+
+	private PositionStore(final FileChannel channel, final FileChannel.MapMode mapMode) throws IOException{
+		final long bytes = channel.size();
+		if(bytes % PositionEncoding.Record_Size != 0){
+			channel.close();
+			throw new IOException("Position store of " + bytes + " bytes is not a whole number of records");
+		}
+		this.channel = channel;
+		this.size = bytes / PositionEncoding.Record_Size;
+		this.segments = new MappedByteBuffer[(int) ((this.size + Segment_Records - 1) / Segment_Records)];
+		for(int i = 0; i < this.segments.length; i++){
+			final long first = i * Segment_Records;
+			this.segments[i] = channel.map(mapMode, first * PositionEncoding.Record_Size,
+					Math.min(Segment_Records, this.size - first) * PositionEncoding.Record_Size);
+		}
+	}
+
+	public static PositionStore open(final Path path) throws IOException{
+		return new PositionStore(FileChannel.open(path, StandardOpenOption.READ), FileChannel.MapMode.READ_ONLY);
+	}
+
+	// orders the records of the file by zobrist key in place, which find relies on; appending breaks the order again
+	public static void sort(final Path path) throws IOException{
+		try(final PositionStore store = new PositionStore(FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE),
+				FileChannel.MapMode.READ_WRITE)){
+			store.sort(0, store.size - 1);
+			for(final MappedByteBuffer segment : store.segments){
+				segment.force();
+			}
+		}
+	}
+
+	public long size(){
+		return this.size;
+	}
+
+	public long hash(final long index){
+		return PositionEncoding.hash(segment(index), offset(index));
+	}
+
+	public Board getBoard(final long index){
+		return PositionEncoding.decode(segment(index), offset(index));
+	}
+
+	public void getBoard(final long index, final MutableBoard board){
+		PositionEncoding.decode(segment(index), offset(index), board);
+	}
+
+	// index of the first record with the key in a sorted store, -1 when there is none
+	public long find(final long hash){
+		long low = 0;
+		long high = this.size;
+		while(low < high){
+			final long middle = (low + high) >>> 1;
+			if(hash(middle) < hash){
+				low = middle + 1;
+			} else{
+				high = middle;
+			}
+		}
+		return low < this.size && hash(low) == hash ? low : -1;
+	}
+
+	public boolean contains(final Board board){
+		return find(board.getZobristHash()) >= 0;
+	}
+
+	@Override
+	public void close() throws IOException{
+		this.channel.close();
+	}
+
+	private MappedByteBuffer segment(final long index){
+		if(index < 0 || index >= this.size){
+			throw new IndexOutOfBoundsException("Position " + index + " of " + this.size);
+		}
+		return this.segments[(int) (index >>> Segment_Shift)];
+	}
+
+	private static int offset(final long index){
+		return (int) (index & (Segment_Records - 1)) * PositionEncoding.Record_Size;
+	}
+
+	// quicksort on the mapped records with the smaller side recursed, so the stack stays logarithmic
+	private void sort(long low, long high){
+		while(high - low >= Insertion_Sort_Threshold){
+			final long pivot = medianOfThree(low, (low + high) >>> 1, high);
+			long i = low;
+			long j = high;
+			while(i <= j){
+				while(hash(i) < pivot){
+					i++;
+				}
+				while(hash(j) > pivot){
+					j--;
+				}
+				if(i <= j){
+					swap(i++, j--);
+				}
+			}
+			if(j - low < high - i){
+				sort(low, j);
+				low = i;
+			} else{
+				sort(i, high);
+				high = j;
+			}
+		}
+		for(long i = low + 1; i <= high; i++){
+			for(long j = i; j > low && hash(j - 1) > hash(j); j--){
+				swap(j - 1, j);
+			}
+		}
+	}
+
+	private long medianOfThree(final long first, final long second, final long third){
+		final long a = hash(first);
+		final long b = hash(second);
+		final long c = hash(third);
+		if(a < b){
+			return b < c ? b : (a < c ? c : a);
+		}
+		return a < c ? a : (b < c ? c : b);
+	}
+
+	private void swap(final long first, final long second){
+		final MappedByteBuffer firstSegment = segment(first);
+		final MappedByteBuffer secondSegment = segment(second);
+		final int firstOffset = offset(first);
+		final int secondOffset = offset(second);
+		for(int i = 0; i < PositionEncoding.Record_Size; i += Long.BYTES){
+			final long word = firstSegment.getLong(firstOffset + i);
+			firstSegment.putLong(firstOffset + i, secondSegment.getLong(secondOffset + i));
+			secondSegment.putLong(secondOffset + i, word);
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.board.PositionEncoding;
+
+// appends PositionEncoding records to a store file; PositionStore.sort restores the key order afterwards
+public final class PositionStoreWriter implements Closeable, Flushable {
+
+	private static final int Default_Buffered_Records = 1 << 15;
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer;
+
+	public PositionStoreWriter(final Path path) throws IOException{
+		this(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND),
+			 Default_Buffered_Records);
+	}
+
+	public PositionStoreWriter(final WritableByteChannel channel, final int bufferedRecords){
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(bufferedRecords * PositionEncoding.Record_Size);
+	}
+
+	public void append(final Board board) throws IOException{
+		PositionEncoding.encode(board, this.buffer, reserve());
+	}
+
+	public void append(final MutableBoard board) throws IOException{
+		PositionEncoding.encode(board, this.buffer, reserve());
+	}
+
+	@Override
+	public void flush() throws IOException{
+		this.buffer.flip();
+		while(this.buffer.hasRemaining()){
+			this.channel.write(this.buffer);
+		}
+		this.buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException{
+		try{
+			flush();
+		} finally{
+			this.channel.close();
+		}
+	}
+
+	// offset of the next record in the buffer, flushing first when it is full
+	private int reserve() throws IOException{
+		if(this.buffer.remaining() < PositionEncoding.Record_Size){
+			flush();
+		}
+		final int offset = this.buffer.position();
+		this.buffer.position(offset + PositionEncoding.Record_Size);
+		return offset;
+	}
+
+}
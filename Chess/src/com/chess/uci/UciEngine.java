@@ -0,0 +1,433 @@
+package com.chess.uci;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.search.AlphaBetaSearch;
+import com.chess.engine.search.LazySmpSearch;
+import com.chess.engine.search.SearchLimits;
+import com.chess.engine.search.StandardBoardEvaluator;
+import com.chess.engine.search.TranspositionTable;
+import com.chess.pgn.FenUtilities;
+
+// the UCI protocol over a pair of streams. commands are read on the caller's thread while a search runs on its own,
+// so stop and ponderhit are handled as soon as they arrive; the search polls its stop signal at every node. the
+// searchers live from one go to the next, keeping their history, and are rebuilt when a new game or an option needs it
+public final class UciEngine {
+
+	public static final String Name = "JChess";
+	public static final String Author = "JChess developers";
+
+	private static final int Default_Hash_Size_MB = 64;
+	private static final int Max_Hash_Size_MB = 4096;
+	private static final int Max_Threads = 256;
+	// kept back from every time allotment for reading the command and writing the answer
+	private static final long Move_Overhead_Millis = 30;
+	private static final int Default_Moves_To_Go = 30;
+	private static final String Start_Position = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+	private static final String Promotion_Letters = "pnbrqk";
+
+	private final BufferedReader input;
+	private final PrintStream output;
+	private final StandardBoardEvaluator evaluator = new StandardBoardEvaluator();
+	// cleared by go before the search thread starts and set by stop, so a stop can not be lost to a starting search
+	private final AtomicBoolean stopSignal = new AtomicBoolean();
+	private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "uci-timer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private TranspositionTable transpositionTable = new TranspositionTable(Default_Hash_Size_MB);
+	private int threads = 1;
+	private Board board = FenUtilities.createGameFromFEN(Start_Position);
+	// zobrist keys of the positions before board that it could still repeat, oldest first
+	private long[] gameHashes = new long[0];
+	private AlphaBetaSearch mainSearch;
+	// null while a single thread searches
+	private LazySmpSearch parallelSearch;
+	private Search search;
+
+	public UciEngine(final InputStream input, final PrintStream output){
+		this.input = new BufferedReader(new InputStreamReader(input, StandardCharsets.US_ASCII));
+		this.output = output;
+		createSearchers();
+	}
+
+	// reads commands until quit or the end of the input
+	public void run() throws IOException{
+		try{
+			for(String line = this.input.readLine(); line != null; line = this.input.readLine()){
+				if(!execute(line.trim())){
+					break;
+				}
+			}
+		} finally{
+			stopSearch();
+			this.timer.shutdownNow();
+			if(this.parallelSearch != null){
+				this.parallelSearch.shutdown();
+			}
+		}
+	}
+
+	// false once the engine should quit
+	boolean execute(final String line){
+		final String[] tokens = line.split("\\s+");
+		switch(tokens[0]){
+			case "uci":
+				send("id name " + Name);
+				send("id author " + Author);
+				send("option name Hash type spin default " + Default_Hash_Size_MB + " min 1 max " + Max_Hash_Size_MB);
+				send("option name Threads type spin default 1 min 1 max " + Max_Threads);
+				send("option name Ponder type check default false");
+				send("uciok");
+				break;
+			case "isready":
+				send("readyok");
+				break;
+			case "ucinewgame":
+				stopSearch();
+				this.transpositionTable.clear();
+				this.evaluator.getPawnHashTable().clear();
+				createSearchers();
+				break;
+			case "setoption":
+				stopSearch();
+				setOption(tokens);
+				break;
+			case "position":
+				stopSearch();
+				setPosition(tokens);
+				break;
+			case "go":
+				stopSearch();
+				go(tokens);
+				break;
+			case "stop":
+				stopSearch();
+				break;
+			case "ponderhit":
+				if(this.search != null){
+					this.search.ponderHit();
+				}
+				break;
+			case "quit":
+				return false;
+			default:
+				// unknown commands are ignored, as the protocol asks
+				break;
+		}
+		return true;
+	}
+
+	private void setOption(final String[] tokens){
+		final String name = value(tokens, "name", "value");
+		final String value = value(tokens, "value", null);
+		try{
+			if("Hash".equalsIgnoreCase(name)){
+				final int sizeInMB = Math.max(1, Math.min(Integer.parseInt(value), Max_Hash_Size_MB));
+				if(sizeInMB != this.transpositionTable.getSizeInMB()){
+					this.transpositionTable = new TranspositionTable(sizeInMB);
+					createSearchers();
+				}
+			} else if("Threads".equalsIgnoreCase(name)){
+				final int threads = Math.max(1, Math.min(Integer.parseInt(value), Max_Threads));
+				if(threads != this.threads){
+					this.threads = threads;
+					createSearchers();
+				}
+			}
+		} catch(final NumberFormatException e){
+			send("info string invalid value " + value + " for option " + name);
+		}
+	}
+
+	private void setPosition(final String[] tokens){
+		int index = 1;
+		Board position;
+		if(index < tokens.length && tokens[index].equals("startpos")){
+			position = FenUtilities.createGameFromFEN(Start_Position);
+			index++;
+		} else if(index < tokens.length && tokens[index].equals("fen")){
+			final StringBuilder fen = new StringBuilder();
+			for(index++; index < tokens.length && !tokens[index].equals("moves"); index++){
+				fen.append(fen.length() == 0 ? "" : " ").append(tokens[index]);
+			}
+			try{
+				position = FenUtilities.createGameFromFEN(fen.toString());
+			} catch(final RuntimeException e){
+				send("info string invalid fen " + fen);
+				return;
+			}
+		} else{
+			return;
+		}
+		final long[] gameHashes = new long[Math.max(0, tokens.length - index)];
+		int gameHashCount = 0;
+		if(index < tokens.length && tokens[index].equals("moves")){
+			for(index++; index < tokens.length; index++){
+				final Move move = parseMove(position, tokens[index]);
+				if(move == Move.NULL_MOVE){
+					send("info string illegal move " + tokens[index]);
+					break;
+				}
+				// no position before a capture or a pawn move can come back
+				if(move.isAttack() || move.getMovedPiece().getPieceType() == PieceType.PAWN){
+					gameHashCount = 0;
+				} else{
+					gameHashes[gameHashCount++] = position.getZobristHash();
+				}
+				position = move.execute();
+			}
+		}
+		this.board = position;
+		this.gameHashes = Arrays.copyOf(gameHashes, gameHashCount);
+	}
+
+	private void go(final String[] tokens){
+		final boolean white = this.board.currentPlayer().getAlliance().isWhite();
+		int depth = SearchLimits.Max_Depth;
+		long nodes = Long.MAX_VALUE;
+		long moveTime = -1;
+		long time = -1;
+		long increment = 0;
+		int movesToGo = Default_Moves_To_Go;
+		boolean infinite = false;
+		boolean ponder = false;
+		try{
+			for(int i = 1; i < tokens.length; i++){
+				final String token = tokens[i];
+				final boolean hasValue = i + 1 < tokens.length;
+				if(token.equals("infinite")){
+					infinite = true;
+				} else if(token.equals("ponder")){
+					ponder = true;
+				} else if(hasValue && token.equals("depth")){
+					depth = Integer.parseInt(tokens[++i]);
+				} else if(hasValue && token.equals("nodes")){
+					nodes = Long.parseLong(tokens[++i]);
+				} else if(hasValue && token.equals("movetime")){
+					moveTime = Long.parseLong(tokens[++i]);
+				} else if(hasValue && token.equals(white ? "wtime" : "btime")){
+					time = Long.parseLong(tokens[++i]);
+				} else if(hasValue && token.equals(white ? "winc" : "binc")){
+					increment = Long.parseLong(tokens[++i]);
+				} else if(hasValue && token.equals("movestogo")){
+					movesToGo = Math.max(1, Integer.parseInt(tokens[++i]));
+				}
+			}
+		} catch(final NumberFormatException e){
+			send("info string invalid go command");
+			return;
+		}
+		long allottedMillis = Long.MAX_VALUE;
+		if(moveTime >= 0){
+			allottedMillis = Math.max(1, moveTime - Move_Overhead_Millis);
+		} else if(time >= 0){
+			final long usable = Math.max(1, time - Move_Overhead_Millis);
+			allottedMillis = Math.max(1, Math.min(usable / 2, usable / movesToGo + increment * 3 / 4));
+		}
+		// pondering and infinite searches run until stopped; a ponder hit starts the clock on a timer instead
+		final SearchLimits limits = new SearchLimits(depth, ponder || infinite ? Long.MAX_VALUE : allottedMillis, nodes);
+		if(this.parallelSearch != null){
+			this.parallelSearch.setLimits(limits);
+			this.parallelSearch.setGameHistory(this.gameHashes);
+		} else{
+			this.mainSearch.setLimits(limits);
+			this.mainSearch.setGameHistory(this.gameHashes);
+		}
+		this.stopSignal.set(false);
+		this.search = new Search(this.board, ponder, allottedMillis, infinite || ponder);
+		this.search.start();
+	}
+
+	private void stopSearch(){
+		final Search running = this.search;
+		if(running != null){
+			running.stop();
+			running.join();
+			this.search = null;
+		}
+	}
+
+	// only between searches, so no thread is using the searchers being replaced
+	private void createSearchers(){
+		if(this.parallelSearch != null){
+			this.parallelSearch.shutdown();
+		}
+		final SearchLimits limits = SearchLimits.depth(SearchLimits.Max_Depth);
+		if(this.threads > 1){
+			this.parallelSearch = new LazySmpSearch(this.evaluator, this.transpositionTable, limits, this.threads, this.stopSignal);
+			this.mainSearch = this.parallelSearch.getMainSearch();
+		} else{
+			this.parallelSearch = null;
+			this.mainSearch = new AlphaBetaSearch(this.evaluator, this.transpositionTable, limits, this.stopSignal);
+		}
+	}
+
+	// long algebraic notation such as e2e4 or e7e8q, NULL_MOVE when it is not legal on the board
+	static Move parseMove(final Board board, final String text){
+		if(text.length() < 4 || text.length() > 5){
+			return Move.NULL_MOVE;
+		}
+		final Integer from = BoardUtils.Position_To_Coordinate.get(text.substring(0, 2));
+		final Integer destination = BoardUtils.Position_To_Coordinate.get(text.substring(2, 4));
+		final int promotionType = text.length() == 5 ? Promotion_Letters.indexOf(Character.toLowerCase(text.charAt(4))) : -1;
+		if(from == null || destination == null || (text.length() == 5 && promotionType < 0)){
+			return Move.NULL_MOVE;
+		}
+		return Move.MoveFactory.createMove(board, from, destination, promotionType);
+	}
+
+	static String formatMove(final Move move){
+		return move == null || move == Move.NULL_MOVE ? "0000" : MoveEncoding.toString(MoveEncoding.encode(move));
+	}
+
+	private void send(final String line){
+		synchronized(this.output){
+			this.output.println(line);
+			this.output.flush();
+		}
+	}
+
+	private static String value(final String[] tokens, final String key, final String end){
+		final StringBuilder value = new StringBuilder();
+		boolean inValue = false;
+		for(final String token : tokens){
+			if(inValue && token.equals(end)){
+				break;
+			}
+			if(inValue){
+				value.append(value.length() == 0 ? "" : " ").append(token);
+			}
+			inValue |= token.equals(key);
+		}
+		return value.toString();
+	}
+
+	// one go command: the search runs on its own thread, reporting each completed iteration, and sends bestmove when it
+	// finishes, or for pondering and infinite searches once stop or ponderhit has ended them
+	private final class Search {
+
+		private final Board root;
+		private final boolean ponder;
+		// the time a ponder hit leaves for the search
+		private final long ponderMillis;
+		private final CountDownLatch released;
+		private final Thread thread;
+		private volatile ScheduledFuture<?> deadline;
+		private long startNanos;
+
+		Search(final Board root, final boolean ponder, final long ponderMillis, final boolean waitForStop){
+			this.root = root;
+			this.ponder = ponder;
+			this.ponderMillis = ponderMillis;
+			this.released = new CountDownLatch(waitForStop ? 1 : 0);
+			this.thread = new Thread(this::run, "uci-search");
+			this.thread.setDaemon(true);
+		}
+
+		void start(){
+			if(UciEngine.this.parallelSearch != null){
+				UciEngine.this.parallelSearch.setSearchListener(this::sendInfo);
+			} else{
+				UciEngine.this.mainSearch.setSearchListener(this::sendInfo);
+			}
+			this.startNanos = System.nanoTime();
+			this.thread.start();
+		}
+
+		void ponderHit(){
+			if(!this.ponder || this.released.getCount() == 0){
+				return;
+			}
+			if(this.ponderMillis != Long.MAX_VALUE){
+				this.deadline = UciEngine.this.timer.schedule(() -> UciEngine.this.stopSignal.set(true), this.ponderMillis, TimeUnit.MILLISECONDS);
+			}
+			this.released.countDown();
+		}
+
+		void stop(){
+			final ScheduledFuture<?> clock = this.deadline;
+			if(clock != null && !clock.cancel(false)){
+				// a clock that already fired has to be done with the stop signal before the next go clears it
+				try{
+					clock.get();
+				} catch(final InterruptedException e){
+					Thread.currentThread().interrupt();
+				} catch(final ExecutionException | CancellationException e){
+					// nothing left to wait for
+				}
+			}
+			UciEngine.this.stopSignal.set(true);
+			this.released.countDown();
+		}
+
+		void join(){
+			try{
+				this.thread.join();
+			} catch(final InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private void run(){
+			try{
+				final Move bestMove = UciEngine.this.parallelSearch != null ?
+					UciEngine.this.parallelSearch.execute(this.root) : UciEngine.this.mainSearch.execute(this.root);
+				// the protocol forbids bestmove before a pondering or infinite search is stopped
+				this.released.await();
+				final ScheduledFuture<?> clock = this.deadline;
+				if(clock != null){
+					clock.cancel(false);
+				}
+				final List<Move> principalVariation = UciEngine.this.mainSearch.getPrincipalVariation();
+				String answer = "bestmove " + formatMove(bestMove);
+				if(principalVariation.size() > 1 && principalVariation.get(0) == bestMove){
+					answer += " ponder " + formatMove(principalVariation.get(1));
+				}
+				send(answer);
+			} catch(final InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private void sendInfo(final int depth, final int score, final long nodes, final List<Move> principalVariation){
+			final long millis = (System.nanoTime() - this.startNanos) / 1000000L;
+			final String scoreText = Math.abs(score) >= AlphaBetaSearch.Mate_Bound ?
+				"mate " + (score > 0 ? (AlphaBetaSearch.Mate - score + 1) / 2 : -(AlphaBetaSearch.Mate + score) / 2) : "cp " + score;
+			final StringBuilder info = new StringBuilder("info depth ").append(depth)
+				.append(" score ").append(scoreText)
+				.append(" nodes ").append(nodes)
+				.append(" nps ").append(nodes * 1000L / Math.max(1L, millis))
+				.append(" time ").append(millis)
+				.append(" pv");
+			for(final Move move : principalVariation){
+				info.append(' ').append(formatMove(move));
+			}
+			send(info.toString());
+		}
+
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.chess.engine.board;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.pgn.FenUtilities;
+
+public class MoveIndexTest {
+
+	@Test
+	public void holdsEveryLegalMove(){
+		final Board board = FenUtilities.createGameFromFEN("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+		final Collection<Move> legalMoves = board.currentPlayer().getLegalMoves();
+		final MoveIndex index = new MoveIndex(legalMoves);
+		assertEquals(legalMoves.size(), index.size());
+		for(final Move move : legalMoves){
+			assertTrue(index.contains(move));
+			assertTrue(index.contains(move.getCurrentCoordinate(), move.getDestinationCoordinate()));
+			assertSame(move, index.get(move.getCurrentCoordinate(), move.getDestinationCoordinate()));
+		}
+		for(final Move move : board.currentPlayer().getOpponent().getLegalMoves()){
+			assertFalse(index.contains(move));
+		}
+	}
+
+	@Test
+	public void missingPair(){
+		final MoveIndex index = new MoveIndex(Board.createStandardBoard().currentPlayer().getLegalMoves());
+		// neither e2e5 nor Ke2 is a move from the start position
+		assertFalse(index.contains(52, 28));
+		assertSame(Move.NULL_MOVE, index.get(52, 28));
+		assertSame(Move.NULL_MOVE, index.get(60, 52, -1));
+	}
+
+	@Test
+	public void promotionsShareAPair(){
+		final Board board = FenUtilities.createGameFromFEN("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1");
+		final MoveIndex index = new MoveIndex(board.currentPlayer().getLegalMoves());
+		final int from = 9;
+		final int destination = 1;
+		assertEquals(PieceType.QUEEN, ((PawnPromotion) index.get(from, destination)).getPromotionPiece().getPieceType());
+		for(final PieceType pieceType : new PieceType[]{PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN}){
+			final Move move = index.get(from, destination, pieceType.ordinal());
+			assertEquals(pieceType, ((PawnPromotion) move).getPromotionPiece().getPieceType());
+			assertTrue(index.contains(move));
+		}
+		assertSame(Move.NULL_MOVE, index.get(from, destination, -1));
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.chess.engine.board;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.chess.pgn.FenUtilities;
+
+public class PositionEncodingTest {
+
+	// castling rights, an en passant pawn and black to move all live in the nibbles
+	private static final String[] Positions = {
+		"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+		"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+		"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+		"rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 1",
+		"rnbqkbnr/pppp1ppp/8/8/3Pp3/8/PPP1PPPP/RNBQKBNR b Kq d3 0 1"
+	};
+
+	@Test
+	public void boardRoundTrip(){
+		final ByteBuffer buffer = ByteBuffer.allocate(PositionEncoding.Record_Size);
+		for(final Board board : boards()){
+			PositionEncoding.encode(board, buffer, 0);
+			assertEquals(board, PositionEncoding.decode(buffer, 0));
+			assertEquals(board.getZobristHash(), PositionEncoding.hash(buffer, 0));
+			assertEquals(board.getOccupancy(), PositionEncoding.occupancy(buffer, 0));
+		}
+	}
+
+	@Test
+	public void mutableBoardMatchesBoard(){
+		final ByteBuffer expected = ByteBuffer.allocate(PositionEncoding.Record_Size);
+		final ByteBuffer actual = ByteBuffer.allocate(2 * PositionEncoding.Record_Size);
+		final MutableBoard decoded = new MutableBoard();
+		for(final Board board : boards()){
+			PositionEncoding.encode(board, expected, 0);
+			PositionEncoding.encode(new MutableBoard(board), actual, PositionEncoding.Record_Size);
+			assertTrue(PositionEncoding.equals(expected, 0, actual, PositionEncoding.Record_Size));
+			PositionEncoding.decode(expected, 0, decoded);
+			assertEquals(board, decoded.toBoard());
+			assertEquals(board.getZobristHash(), decoded.getZobristHash());
+		}
+	}
+
+	@Test
+	public void differentPositionsDiffer(){
+		final ByteBuffer buffer = ByteBuffer.allocate(2 * PositionEncoding.Record_Size);
+		PositionEncoding.encode(FenUtilities.createGameFromFEN(Positions[0]), buffer, 0);
+		// the same pieces with black to move
+		PositionEncoding.encode(FenUtilities.createGameFromFEN(Positions[0].replace(" w ", " b ")), buffer, PositionEncoding.Record_Size);
+		assertFalse(PositionEncoding.equals(buffer, 0, buffer, PositionEncoding.Record_Size));
+	}
+
+	private static List<Board> boards(){
+		final List<Board> boards = new ArrayList<>();
+		for(final String fen : Positions){
+			final Board board = FenUtilities.createGameFromFEN(fen);
+			boards.add(board);
+			for(final Move move : board.currentPlayer().getLegalMoves()){
+				boards.add(move.execute());
+			}
+		}
+		return boards;
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.chess.engine.perft;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MutableBoard;
+import com.chess.pgn.FenUtilities;
+
+// the reference suite, every position to depth 4 on the immutable board and to depth 5 on the mutable one
+public class PerftTest {
+
+	@Test
+	public void immutableBoard(){
+		assertEquals(11024485L, runSuite(4, false));
+	}
+
+	@Test
+	public void mutableBoard(){
+		assertEquals(16564718L, runSuite(5, true));
+	}
+
+	private static long runSuite(final int maxDepth, final boolean mutable){
+		long totalNodes = 0;
+		for(int i = 0; i < PerftSuite.Reference_Positions.length; i++){
+			final Board board = FenUtilities.createGameFromFEN(PerftSuite.Reference_Positions[i]);
+			for(int depth = 1; depth <= Math.min(maxDepth, PerftSuite.Reference_Counts[i].length); depth++){
+				final long nodes = mutable ? Perft.perft(new MutableBoard(board), depth) : Perft.perft(board, depth);
+				assertEquals("position " + (i + 1) + " depth " + depth, PerftSuite.Reference_Counts[i][depth - 1], nodes);
+				totalNodes += nodes;
+			}
+		}
+		return totalNodes;
+	}
+
+}
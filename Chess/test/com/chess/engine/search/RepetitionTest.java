@@ -0,0 +1,40 @@
+package com.chess.engine.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.pgn.FenUtilities;
+
+public class RepetitionTest {
+
+	private static final String Queen_Down = "k7/8/8/8/8/8/5q2/K7 w - - 0 1";
+
+	private static AlphaBetaSearch search(){
+		return new AlphaBetaSearch(new StandardBoardEvaluator(), new TranspositionTable(16), SearchLimits.depth(6));
+	}
+
+	@Test
+	public void lostWithoutHistory(){
+		final AlphaBetaSearch search = search();
+		search.execute(FenUtilities.createGameFromFEN(Queen_Down));
+		assertTrue(search.getBestScore() < -500);
+	}
+
+	// Kb1 brings back a position the game has already seen, so it draws
+	@Test
+	public void repeatsPositionFromGameHistory(){
+		final Board board = FenUtilities.createGameFromFEN(Queen_Down);
+		final Move kingMove = Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("a1"),
+				BoardUtils.getCoordinateAtPosition("b1"));
+		final AlphaBetaSearch search = search();
+		search.setGameHistory(new long[] { kingMove.execute().getZobristHash() });
+		final Move bestMove = search.execute(board);
+		assertEquals(kingMove, bestMove);
+		assertEquals(0, search.getBestScore());
+	}
+}
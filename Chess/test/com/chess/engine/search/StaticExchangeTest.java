@@ -0,0 +1,67 @@
+package com.chess.engine.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MutableBoard;
+import com.chess.pgn.FenUtilities;
+
+public class StaticExchangeTest {
+
+	private final StaticExchange staticExchange = new StaticExchange();
+
+	private int evaluate(final String fen, final String move){
+		final Board board = FenUtilities.createGameFromFEN(fen);
+		final Move legalMove = Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition(move.substring(0, 2)),
+				BoardUtils.getCoordinateAtPosition(move.substring(2, 4)));
+		return this.staticExchange.evaluate(new MutableBoard(board), MoveEncoding.encode(legalMove));
+	}
+
+	@Test
+	public void undefendedCapture(){
+		assertEquals(100, evaluate("4k3/8/8/3p4/4P3/8/8/4K3 w - - 0 1", "e4d5"));
+	}
+
+	@Test
+	public void defendedCapture(){
+		assertEquals(-400, evaluate("4k3/8/2p5/3p4/8/8/8/3RK3 w - - 0 1", "d1d5"));
+	}
+
+	// the second rook joins in from behind the first
+	@Test
+	public void xRay(){
+		assertEquals(100, evaluate("4k3/3r4/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2d5"));
+	}
+
+	// the queen goes in first and is lost for a rook and a pawn
+	@Test
+	public void expensiveAttackerFirst(){
+		assertEquals(-300, evaluate("4k3/3r4/8/3p4/8/8/3Q4/3RK3 w - - 0 1", "d2d5"));
+	}
+
+	@Test
+	public void enPassant(){
+		assertEquals(100, evaluate("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6"));
+	}
+
+	@Test
+	public void kingCapture(){
+		assertEquals(900, evaluate("1k6/8/8/8/3q4/4K3/8/8 w - - 0 1", "e3d4"));
+	}
+
+	@Test
+	public void losing(){
+		final Board board = FenUtilities.createGameFromFEN("4k3/8/2p5/3p4/8/8/8/3RK3 w - - 0 1");
+		final MutableBoard mutableBoard = new MutableBoard(board);
+		assertTrue(this.staticExchange.isLosing(mutableBoard, MoveEncoding.encode(Move.MoveFactory.createMove(board, 59, 27))));
+		assertFalse(this.staticExchange.isLosing(mutableBoard, MoveEncoding.encode(Move.MoveFactory.createMove(board, 59, 51))));
+	}
+
+}
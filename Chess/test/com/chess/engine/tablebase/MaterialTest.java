@@ -0,0 +1,89 @@
+package com.chess.engine.tablebase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.Board;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.pgn.FenUtilities;
+
+public class MaterialTest {
+
+	@Test
+	public void names(){
+		assertEquals("KQvK", Material.parse("KQvK").getName());
+		// the stronger side is always white
+		assertEquals("KRvKB", Material.parse("KBvKR").getName());
+		assertEquals(Material.parse("KRvKB").getFlippedSignature(), Material.parse("KBvKR").getFlippedSignature());
+	}
+
+	@Test
+	public void size(){
+		// side to move, 32 white king tiles, 64 tiles for each other piece
+		assertEquals(2 * 32 * 64, Material.parse("KvK").size());
+		assertEquals(2 * 32 * 64 * 64, Material.parse("KPvK").size());
+		assertEquals(3, Material.parse("KPvK").getPieceCount());
+	}
+
+	@Test
+	public void indexRoundTrip(){
+		final Material material = Material.parse("KRvKN");
+		final long[] pieceBitboards = new long[BitBoard.Num_Piece_Bitboards];
+		int positions = 0;
+		for(int index = 0; index < material.size(); index++){
+			if(material.decode(index, pieceBitboards)){
+				assertEquals(index, material.index(pieceBitboards, Material.isWhiteToMove(index, material.getPieceCount()), false));
+				positions++;
+			}
+		}
+		// kings, rook and knight on distinct tiles
+		assertEquals(2 * 32 * 63 * 62 * 61, positions);
+	}
+
+	@Test
+	public void pawnsStayOffTheBackRanks(){
+		final Material material = Material.parse("KPvK");
+		final long[] pieceBitboards = new long[BitBoard.Num_Piece_Bitboards];
+		final int whitePawns = BitBoard.index(PieceType.PAWN, Alliance.White);
+		for(int index = 0; index < material.size(); index++){
+			if(material.decode(index, pieceBitboards)){
+				assertEquals(0L, pieceBitboards[whitePawns] & 0xFF000000000000FFL);
+			}
+		}
+	}
+
+	@Test
+	public void ofBoard(){
+		final Board board = FenUtilities.createGameFromFEN("8/8/8/4k3/8/8/4P3/4K3 b - - 0 1");
+		final Material material = Material.of(board);
+		assertEquals("KPvK", material.getName());
+		final long[] pieceBitboards = new long[BitBoard.Num_Piece_Bitboards];
+		for(int pieceIndex = 0; pieceIndex < pieceBitboards.length; pieceIndex++){
+			pieceBitboards[pieceIndex] = board.getPieceBitboard(BitBoard.pieceTypeOf(pieceIndex), BitBoard.allianceOf(pieceIndex));
+		}
+		assertEquals(material.getSignature(), Material.signature(pieceBitboards));
+		final int index = material.index(pieceBitboards, false, false);
+		assertFalse(Material.isWhiteToMove(index, material.getPieceCount()));
+		final long[] decoded = new long[BitBoard.Num_Piece_Bitboards];
+		assertTrue(material.decode(index, decoded));
+		// the white king stands on the e-file, so the position comes back mirrored onto the d-file
+		assertEquals(BitBoard.squareMask(59), decoded[BitBoard.index(PieceType.KING, Alliance.White)]);
+		assertEquals(BitBoard.squareMask(51), decoded[BitBoard.index(PieceType.PAWN, Alliance.White)]);
+	}
+
+	@Test
+	public void without(){
+		final Material material = Material.parse("KQvKR");
+		assertEquals("KQvK", material.without(BitBoard.index(PieceType.ROOK, Alliance.Black), -1, -1).getName());
+		// losing the queen leaves black the stronger side, so the colours swap
+		assertEquals("KRvK", material.without(BitBoard.index(PieceType.QUEEN, Alliance.White), -1, -1).getName());
+		assertEquals("KQvK", Material.parse("KPvK").without(-1, BitBoard.index(PieceType.PAWN, Alliance.White),
+				BitBoard.index(PieceType.QUEEN, Alliance.White)).getName());
+	}
+
+}
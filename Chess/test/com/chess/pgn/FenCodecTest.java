@@ -0,0 +1,89 @@
+package com.chess.pgn;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+
+public class FenCodecTest {
+
+	static final String[] Positions = {
+		"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+		"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+		"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+		"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+		"rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 1"
+	};
+
+	@Test
+	public void fenRoundTrip(){
+		for(final String fen : Positions){
+			assertEquals(fen, FenCodec.toFen(FenCodec.parse(fen)));
+		}
+	}
+
+	@Test
+	public void roundTripAfterEveryMove(){
+		for(final Board board : successors()){
+			assertEquals(board, FenCodec.parse(FenCodec.toFen(board)));
+		}
+	}
+
+	@Test
+	public void parsesWithinText(){
+		final String text = "xx " + Positions[1] + " yy";
+		final int start = 3;
+		final int end = start + Positions[1].length();
+		assertEquals(FenCodec.parse(Positions[1]), FenCodec.parse(text, start, end));
+		assertEquals(Positions[1].indexOf(" - ") + 2, FenCodec.positionEnd(text, start, end) - start);
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void rejectsMissingSideToMove(){
+		FenCodec.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR KQkq - 0 1");
+	}
+
+	@Test
+	public void epdRoundTrip() throws IOException{
+		final List<Board> boards = successors();
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(final EpdWriter writer = new EpdWriter(Channels.newChannel(bytes), 64)){
+			for(int i = 0; i < boards.size(); i++){
+				writer.write(boards.get(i), i % 2 == 0 ? "id \"" + i + "\";" : null);
+			}
+		}
+		// a buffer of not quite two lines makes the reader carry partial lines over
+		try(final EpdReader reader = new EpdReader(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), 128)){
+			for(int i = 0; i < boards.size(); i++){
+				assertTrue(reader.nextLine());
+				assertEquals(boards.get(i), reader.board());
+				assertEquals(i % 2 == 0 ? "id \"" + i + "\";" : "", reader.operations().toString());
+			}
+			assertFalse(reader.nextLine());
+		}
+	}
+
+	private static List<Board> successors(){
+		final List<Board> boards = new ArrayList<>();
+		for(final String fen : Positions){
+			final Board board = FenCodec.parse(fen);
+			boards.add(board);
+			for(final Move move : board.currentPlayer().getLegalMoves()){
+				boards.add(move.execute());
+			}
+		}
+		return boards;
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.chess.pgn;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board;
+
+public class PgnParserTest {
+
+	// tag values and comments hold brackets, semicolons and lines that look like tags
+	private static final String First_Game =
+		"[Event \"A {odd; value\"]\n[Site \"x\"]\n\n1. e4 { a long comment that wraps\n[%clk 0:01:00] } e5 2. Nf3 {another\n\n" +
+		"[Event \"inside\"] comment} Nc6 1-0\n\n";
+	private static final String Second_Game = "[Event \"B\"]\n\n1. d4 d5 { wrapped\n[%clk 1] } 0-1\n";
+	private static final String Third_Game = "[Event \"C\"]\n\n1. c4 ; [Event \"line comment\"]\n*\n";
+	private static final String Games = First_Game + Second_Game + Third_Game;
+
+	@Test
+	public void parsesGame(){
+		final PgnGame game = PgnParser.parseGame(First_Game);
+		assertEquals("A {odd; value", game.getTag("Event"));
+		assertEquals("x", game.getTag("Site"));
+		assertEquals(4, game.getMoves().size());
+		assertEquals("1-0", game.getResult());
+	}
+
+	@Test
+	public void splitsGames(){
+		final int second = PgnParser.gameEnd(Games, 0, Games.length());
+		assertEquals(First_Game.length(), second);
+		final int third = PgnParser.gameEnd(Games, second, Games.length());
+		assertEquals(First_Game.length() + Second_Game.length(), third);
+		assertEquals(Games.length(), PgnParser.gameEnd(Games, third, Games.length()));
+	}
+
+	@Test
+	public void resolvesMoves(){
+		assertEquals("e2e4", PgnParser.resolveMove(Board.createStandardBoard(), "e4").toString());
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void rejectsUnterminatedComment(){
+		PgnParser.parseGame("[Event \"D\"]\n\n1. e4 { never closed\n");
+	}
+
+	// several chunks long, so chunk boundaries fall among comments holding lines that look like tags
+	@Test
+	public void importsEveryGame() throws IOException{
+		final int copies = 3 * PgnImporter.Chunk_Size / Games.length();
+		final StringBuilder text = new StringBuilder();
+		for(int i = 0; i < copies; i++){
+			text.append(Games);
+		}
+		final Path path = Files.createTempFile("games", ".pgn");
+		try(final PgnImporter importer = new PgnImporter(2, 8)){
+			Files.write(path, text.toString().getBytes(StandardCharsets.US_ASCII));
+			final Map<String, Integer> events = new ConcurrentHashMap<>();
+			assertEquals(3 * copies, importer.importGames(path, game -> events.merge(game.getTag("Event"), 1, Integer::sum)));
+			assertEquals(0, importer.getParseErrors());
+			assertEquals(3, events.size());
+			assertEquals(Integer.valueOf(copies), events.get("A {odd; value"));
+		} finally{
+			Files.delete(path);
+		}
+	}
+
+	// a comment long enough to hold the middle of the file, with a line that looks like a first tag late in it
+	@Test
+	public void keepsGameWithLongComment() throws IOException{
+		final StringBuilder comment = new StringBuilder();
+		while(comment.length() < PgnImporter.Chunk_Size){
+			comment.append("a long annotation line\n");
+		}
+		final String longGame = "[Event \"long\"]\n\n1. e4 {" + comment + "[Event \"inside\"] } e5 1/2-1/2\n\n";
+		final int copies = PgnImporter.Chunk_Size / Games.length();
+		final StringBuilder text = new StringBuilder();
+		for(int i = 0; i < copies; i++){
+			text.append(Games);
+		}
+		text.append(longGame);
+		for(int i = 0; i < copies; i++){
+			text.append(Games);
+		}
+		final Path path = Files.createTempFile("games", ".pgn");
+		try(final PgnImporter importer = new PgnImporter(2, 8)){
+			Files.write(path, text.toString().getBytes(StandardCharsets.US_ASCII));
+			final Map<String, Integer> events = new ConcurrentHashMap<>();
+			assertEquals(6 * copies + 1, importer.importGames(path, game -> events.merge(game.getTag("Event"), 1, Integer::sum)));
+			assertEquals(0, importer.getParseErrors());
+			assertEquals(Integer.valueOf(1), events.get("long"));
+		} finally{
+			Files.delete(path);
+		}
+	}
+
+}
@@ -0,0 +1,56 @@
+package com.chess.pgn;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+// the reference keys published with the Polyglot book format
+public class PolyglotKeysTest {
+
+	private static long key(final String fen){
+		return PolyglotKeys.standard().hash(FenCodec.parse(fen));
+	}
+
+	@Test
+	public void startPosition(){
+		assertEquals(0x463b96181691fc9cL, key("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+	}
+
+	@Test
+	public void openingMoves(){
+		assertEquals(0x823c9b50fd114196L, key("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1"));
+		assertEquals(0x0756b94461c50fb0L, key("rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2"));
+		assertEquals(0x662fafb965db29d4L, key("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR b KQkq - 0 2"));
+	}
+
+	@Test
+	public void enPassantFileOnlyWhenCapturable(){
+		assertEquals(0x22a48b5a8e47ff78L, key("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3"));
+		assertEquals(0x3c8123ea7b067637L, key("rnbqkbnr/p1pppppp/8/8/PpP4P/8/1P1PPPP1/RNBQKBNR b KQkq c3 0 3"));
+	}
+
+	@Test
+	public void castlingRights(){
+		assertEquals(0x652a607ca3f242c1L, key("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR b kq - 0 3"));
+		assertEquals(0x00fdd303c946bdd9L, key("rnbq1bnr/ppp1pkpp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR w - - 0 4"));
+		assertEquals(0x5c3f9b829b279560L, key("rnbqkbnr/p1pppppp/8/8/P6P/R1p5/1P1PPPP1/1NBQKBNR b Kkq - 0 4"));
+	}
+
+	// only the side to move key is set, so the kings and the castling rights hash to nothing
+	@Test
+	public void parsedTable(){
+		final StringBuilder text = new StringBuilder();
+		for(int i = 0; i < PolyglotKeys.Num_Keys; i++){
+			text.append(i == PolyglotKeys.Num_Keys - 1 ? "0xF8D626AAAF278509" : "0x0").append(", ");
+		}
+		final PolyglotKeys keys = PolyglotKeys.parse(text);
+		assertEquals(0xF8D626AAAF278509L, keys.hash(FenCodec.parse("4k3/8/8/8/8/8/8/4K3 w - - 0 1")));
+		assertEquals(0L, keys.hash(FenCodec.parse("4k3/8/8/8/8/8/8/4K3 b - - 0 1")));
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void shortTable(){
+		PolyglotKeys.parse("0x1, 0x2");
+	}
+
+}